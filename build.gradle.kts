@@ -86,6 +86,19 @@ tasks.processResources {
     exclude("config.properties")
 }
 
+// 注解处理器以独立的 processor 分类构件发布，不在主构件中注册，避免在下游编译中自动运行
+val processorJar by tasks.registering(Jar::class) {
+    archiveClassifier.set("processor")
+    from(sourceSets.main.get().output) {
+        include("io/github/sinri/keel/web/http/receptionist/processor/**")
+    }
+    from("src/processor/resources")
+}
+
+tasks.assemble {
+    dependsOn(processorJar)
+}
+
 // Configure test task (matching Maven surefire configuration)
 tasks.test {
     useJUnitPlatform()
@@ -112,6 +125,7 @@ publishing {
     publications {
         create<MavenPublication>("mavenJava") {
             from(components["java"])
+            artifact(processorJar)
 
             pom {
                 name.set(projectName)
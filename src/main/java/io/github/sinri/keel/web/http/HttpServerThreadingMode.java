@@ -0,0 +1,27 @@
+package io.github.sinri.keel.web.http;
+
+import io.github.sinri.keel.web.http.receptionist.KeelWebFutureReceptionistInVirtualThread;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * {@link KeelHttpServer}的线程模型。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+public enum HttpServerThreadingMode {
+    /**
+     * 整个服务 verticle 以虚拟线程模型部署，所有请求均在虚拟线程中处理（运行时支持虚拟线程时的原有默认行为）。
+     */
+    VIRTUAL_THREAD,
+    /**
+     * 服务 verticle 在事件循环上运行，所有请求均在事件循环中处理。
+     */
+    EVENT_LOOP,
+    /**
+     * 服务 verticle 在事件循环上运行；仅{@link KeelWebFutureReceptionistInVirtualThread}的子类被转交到虚拟线程中处理（每个请求一个虚拟线程），
+     * 且每个接待类的并发数受其{@link KeelWebFutureReceptionistInVirtualThread#getVirtualThreadConcurrencyLimit()}限制。
+     * 运行时不支持虚拟线程时等同于{@link #EVENT_LOOP}。
+     */
+    HYBRID
+}
@@ -0,0 +1,42 @@
+package io.github.sinri.keel.web.http;
+
+import io.vertx.core.shareddata.Shareable;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 同一服务各实例共享的在途请求计数与排空状态。
+ * 实现了{@link Shareable}，以便存放在本地共享数据中而不被复制。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+final class InFlightRequestGauge implements Shareable {
+    private final AtomicInteger inFlightRequests = new AtomicInteger();
+    private final AtomicInteger drainingInstances = new AtomicInteger();
+
+    void requestStarted() {
+        inFlightRequests.incrementAndGet();
+    }
+
+    void requestEnded() {
+        inFlightRequests.decrementAndGet();
+    }
+
+    int getInFlightRequests() {
+        return inFlightRequests.get();
+    }
+
+    void drainStarted() {
+        drainingInstances.incrementAndGet();
+    }
+
+    void drainEnded() {
+        drainingInstances.decrementAndGet();
+    }
+
+    boolean isDraining() {
+        return drainingInstances.get() > 0;
+    }
+}
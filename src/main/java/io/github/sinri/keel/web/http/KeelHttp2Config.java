@@ -0,0 +1,321 @@
+package io.github.sinri.keel.web.http;
+
+import io.vertx.core.http.Http2Settings;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.json.JsonObject;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link KeelHttpServer}的 HTTP/2 配置。
+ * <p>
+ * 包括是否允许明文 HTTP/2（h2c，含 HTTP/1.1 升级与直接以 HTTP/2 连接），启用 TLS 时是否通过 ALPN 协商 HTTP/2，
+ * 以及每个连接的流控窗口、并发流数、头部压缩表大小等设置。各项在设置时按 RFC 9113 的取值范围校验，非法值抛出{@link IllegalArgumentException}。
+ * <p>
+ * 可从预设{@link #defaults()}、{@link #highMultiplexing()}、{@link #lowMemory()}出发调整，
+ * 也可由{@link #fromJson(JsonObject)}从配置项读取；之后通过{@link #applyTo(HttpServerOptions)}写入服务选项。
+ * 只有经设置方法（包括预设与配置项）明确设置过的项才会写入，其余项保持服务选项原有的值，
+ * 因此可与{@code http_server_options}中的同类设置并用。
+ * 预设{@link #highMultiplexing()}与{@link #lowMemory()}启用 ALPN；{@link #defaults()}不设置 ALPN，
+ * 启用 TLS 的服务（Vert.x 默认不启用 ALPN）如需通过 TLS 协商 HTTP/2，须另行设置{@code alpn_enabled}或在服务选项中启用。
+ * 本地可用{@code curl --http2-prior-knowledge http://127.0.0.1:8080/...}验证 h2c。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+public final class KeelHttp2Config {
+    public static final String PRESET_DEFAULT = "default";
+    public static final String PRESET_HIGH_MULTIPLEXING = "high_multiplexing";
+    public static final String PRESET_LOW_MEMORY = "low_memory";
+
+    private static final int MAX_WINDOW_SIZE = Integer.MAX_VALUE;
+    private static final int MIN_FRAME_SIZE = 16_384;
+    private static final int MAX_FRAME_SIZE = 16_777_215;
+
+    private boolean clearTextEnabled = true;
+    private boolean alpnEnabled = true;
+    private int initialWindowSize = 65_535;
+    private int connectionWindowSize = -1;
+    private long maxConcurrentStreams = 100;
+    private long headerTableSize = 4_096;
+    private int maxFrameSize = MIN_FRAME_SIZE;
+    private long maxHeaderListSize = 8_192;
+    private final Set<Setting> explicitSettings = EnumSet.noneOf(Setting.class);
+
+    private KeelHttp2Config() {
+    }
+
+    /**
+     * @return 不明确设置任何项的配置，写入时保持服务选项原样；各项的取值与 Vert.x 默认值相当：允许 h2c，每流窗口 64 KiB，至多 100 个并发流
+     */
+    public static KeelHttp2Config defaults() {
+        return new KeelHttp2Config();
+    }
+
+    /**
+     * @return 适合内部客户端在少量连接上大量复用的设置：启用 ALPN，每流窗口 1 MiB，连接窗口 16 MiB，至多 1000 个并发流，帧大小 64 KiB
+     */
+    public static KeelHttp2Config highMultiplexing() {
+        return new KeelHttp2Config()
+                .setAlpnEnabled(true)
+                .setInitialWindowSize(1 << 20)
+                .setConnectionWindowSize(16 << 20)
+                .setMaxConcurrentStreams(1_000)
+                .setHeaderTableSize(16_384)
+                .setMaxFrameSize(1 << 16);
+    }
+
+    /**
+     * @return 限制每个连接内存占用的设置：启用 ALPN，每流窗口 32 KiB，至多 32 个并发流，较小的头部表
+     */
+    public static KeelHttp2Config lowMemory() {
+        return new KeelHttp2Config()
+                .setAlpnEnabled(true)
+                .setInitialWindowSize(32_768)
+                .setMaxConcurrentStreams(32)
+                .setHeaderTableSize(2_048)
+                .setMaxHeaderListSize(4_096);
+    }
+
+    /**
+     * 从配置读取：可选的{@code preset}（{@value #PRESET_DEFAULT}、{@value #PRESET_HIGH_MULTIPLEXING}、{@value #PRESET_LOW_MEMORY}）
+     * 作为基础，其余字段（{@code clear_text_enabled}、{@code alpn_enabled}、{@code initial_window_size}、
+     * {@code connection_window_size}、{@code max_concurrent_streams}、{@code header_table_size}、{@code max_frame_size}、
+     * {@code max_header_list_size}）覆盖预设中的对应项。
+     *
+     * @throws IllegalArgumentException 预设名称未知或取值非法时
+     */
+    public static KeelHttp2Config fromJson(JsonObject json) {
+        String preset = json.getString("preset", PRESET_DEFAULT);
+        KeelHttp2Config config = switch (preset) {
+            case PRESET_DEFAULT -> defaults();
+            case PRESET_HIGH_MULTIPLEXING -> highMultiplexing();
+            case PRESET_LOW_MEMORY -> lowMemory();
+            default -> throw new IllegalArgumentException("Unknown HTTP/2 preset: " + preset);
+        };
+        if (json.containsKey("clear_text_enabled")) {
+            config.setClearTextEnabled(json.getBoolean("clear_text_enabled"));
+        }
+        if (json.containsKey("alpn_enabled")) {
+            config.setAlpnEnabled(json.getBoolean("alpn_enabled"));
+        }
+        if (json.containsKey("initial_window_size")) {
+            config.setInitialWindowSize(json.getInteger("initial_window_size"));
+        }
+        if (json.containsKey("connection_window_size")) {
+            config.setConnectionWindowSize(json.getInteger("connection_window_size"));
+        }
+        if (json.containsKey("max_concurrent_streams")) {
+            config.setMaxConcurrentStreams(json.getLong("max_concurrent_streams"));
+        }
+        if (json.containsKey("header_table_size")) {
+            config.setHeaderTableSize(json.getLong("header_table_size"));
+        }
+        if (json.containsKey("max_frame_size")) {
+            config.setMaxFrameSize(json.getInteger("max_frame_size"));
+        }
+        if (json.containsKey("max_header_list_size")) {
+            config.setMaxHeaderListSize(json.getLong("max_header_list_size"));
+        }
+        return config;
+    }
+
+    /**
+     * 将本配置中明确设置过的项写入服务选项，其余项保持原样。
+     * ALPN 仅在服务选项启用 TLS 时生效；启用时若服务选项未指定 ALPN 协议，则设为 HTTP/2 与 HTTP/1.1，已指定的保持不变。
+     *
+     * @return {@code options}
+     */
+    public HttpServerOptions applyTo(HttpServerOptions options) {
+        if (isSet(Setting.CLEAR_TEXT_ENABLED)) {
+            options.setHttp2ClearTextEnabled(clearTextEnabled);
+        }
+        if (isSet(Setting.ALPN_ENABLED) && options.isSsl()) {
+            options.setUseAlpn(alpnEnabled);
+            List<HttpVersion> alpnVersions = options.getAlpnVersions();
+            if (alpnEnabled && (alpnVersions == null || alpnVersions.isEmpty())) {
+                options.setAlpnVersions(List.of(HttpVersion.HTTP_2, HttpVersion.HTTP_1_1));
+            }
+        }
+        Http2Settings settings = options.getInitialSettings();
+        if (settings == null) {
+            settings = new Http2Settings();
+        }
+        if (isSet(Setting.INITIAL_WINDOW_SIZE)) {
+            settings.setInitialWindowSize(initialWindowSize);
+        }
+        if (isSet(Setting.MAX_CONCURRENT_STREAMS)) {
+            settings.setMaxConcurrentStreams(maxConcurrentStreams);
+        }
+        if (isSet(Setting.HEADER_TABLE_SIZE)) {
+            settings.setHeaderTableSize(headerTableSize);
+        }
+        if (isSet(Setting.MAX_FRAME_SIZE)) {
+            settings.setMaxFrameSize(maxFrameSize);
+        }
+        if (isSet(Setting.MAX_HEADER_LIST_SIZE)) {
+            settings.setMaxHeaderListSize(maxHeaderListSize);
+        }
+        options.setInitialSettings(settings);
+        if (isSet(Setting.CONNECTION_WINDOW_SIZE) && connectionWindowSize > 0) {
+            options.setHttp2ConnectionWindowSize(connectionWindowSize);
+        }
+        return options;
+    }
+
+    /**
+     * @return 是否明确设置过某项
+     */
+    private boolean isSet(Setting setting) {
+        return explicitSettings.contains(setting);
+    }
+
+    public boolean isClearTextEnabled() {
+        return clearTextEnabled;
+    }
+
+    /**
+     * @param clearTextEnabled 是否允许明文 HTTP/2（h2c）
+     */
+    public KeelHttp2Config setClearTextEnabled(boolean clearTextEnabled) {
+        this.clearTextEnabled = clearTextEnabled;
+        explicitSettings.add(Setting.CLEAR_TEXT_ENABLED);
+        return this;
+    }
+
+    public boolean isAlpnEnabled() {
+        return alpnEnabled;
+    }
+
+    /**
+     * @param alpnEnabled 启用 TLS 时是否通过 ALPN 协商 HTTP/2
+     */
+    public KeelHttp2Config setAlpnEnabled(boolean alpnEnabled) {
+        this.alpnEnabled = alpnEnabled;
+        explicitSettings.add(Setting.ALPN_ENABLED);
+        return this;
+    }
+
+    public int getInitialWindowSize() {
+        return initialWindowSize;
+    }
+
+    /**
+     * @param initialWindowSize 每个流的初始流控窗口（字节），取值 [0, 2^31-1]
+     */
+    public KeelHttp2Config setInitialWindowSize(int initialWindowSize) {
+        if (initialWindowSize < 0) {
+            throw new IllegalArgumentException("initialWindowSize must be in [0, " + MAX_WINDOW_SIZE + "]");
+        }
+        this.initialWindowSize = initialWindowSize;
+        explicitSettings.add(Setting.INITIAL_WINDOW_SIZE);
+        return this;
+    }
+
+    public int getConnectionWindowSize() {
+        return connectionWindowSize;
+    }
+
+    /**
+     * @param connectionWindowSize 整个连接的流控窗口（字节），为 -1 时保持协议默认值，否则须为正数
+     */
+    public KeelHttp2Config setConnectionWindowSize(int connectionWindowSize) {
+        if (connectionWindowSize != -1 && connectionWindowSize <= 0) {
+            throw new IllegalArgumentException("connectionWindowSize must be positive or -1");
+        }
+        this.connectionWindowSize = connectionWindowSize;
+        explicitSettings.add(Setting.CONNECTION_WINDOW_SIZE);
+        return this;
+    }
+
+    public long getMaxConcurrentStreams() {
+        return maxConcurrentStreams;
+    }
+
+    /**
+     * @param maxConcurrentStreams 每个连接的最大并发流数，取值 [1, 2^32-1]
+     */
+    public KeelHttp2Config setMaxConcurrentStreams(long maxConcurrentStreams) {
+        if (maxConcurrentStreams < 1 || maxConcurrentStreams > 0xFFFFFFFFL) {
+            throw new IllegalArgumentException("maxConcurrentStreams must be in [1, 2^32-1]");
+        }
+        this.maxConcurrentStreams = maxConcurrentStreams;
+        explicitSettings.add(Setting.MAX_CONCURRENT_STREAMS);
+        return this;
+    }
+
+    public long getHeaderTableSize() {
+        return headerTableSize;
+    }
+
+    /**
+     * @param headerTableSize HPACK 动态表大小（字节），取值 [0, 2^32-1]
+     */
+    public KeelHttp2Config setHeaderTableSize(long headerTableSize) {
+        if (headerTableSize < 0 || headerTableSize > 0xFFFFFFFFL) {
+            throw new IllegalArgumentException("headerTableSize must be in [0, 2^32-1]");
+        }
+        this.headerTableSize = headerTableSize;
+        explicitSettings.add(Setting.HEADER_TABLE_SIZE);
+        return this;
+    }
+
+    public int getMaxFrameSize() {
+        return maxFrameSize;
+    }
+
+    /**
+     * @param maxFrameSize 最大帧负载（字节），取值 [16384, 16777215]
+     */
+    public KeelHttp2Config setMaxFrameSize(int maxFrameSize) {
+        if (maxFrameSize < MIN_FRAME_SIZE || maxFrameSize > MAX_FRAME_SIZE) {
+            throw new IllegalArgumentException("maxFrameSize must be in [" + MIN_FRAME_SIZE + ", " + MAX_FRAME_SIZE + "]");
+        }
+        this.maxFrameSize = maxFrameSize;
+        explicitSettings.add(Setting.MAX_FRAME_SIZE);
+        return this;
+    }
+
+    public long getMaxHeaderListSize() {
+        return maxHeaderListSize;
+    }
+
+    /**
+     * @param maxHeaderListSize 可接受的头部列表大小上限（字节），须为正数
+     */
+    public KeelHttp2Config setMaxHeaderListSize(long maxHeaderListSize) {
+        if (maxHeaderListSize <= 0 || maxHeaderListSize > 0xFFFFFFFFL) {
+            throw new IllegalArgumentException("maxHeaderListSize must be in [1, 2^32-1]");
+        }
+        this.maxHeaderListSize = maxHeaderListSize;
+        explicitSettings.add(Setting.MAX_HEADER_LIST_SIZE);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "KeelHttp2Config{clearTextEnabled=" + clearTextEnabled
+                + ", alpnEnabled=" + alpnEnabled
+                + ", initialWindowSize=" + initialWindowSize
+                + ", connectionWindowSize=" + connectionWindowSize
+                + ", maxConcurrentStreams=" + maxConcurrentStreams
+                + ", headerTableSize=" + headerTableSize
+                + ", maxFrameSize=" + maxFrameSize
+                + ", maxHeaderListSize=" + maxHeaderListSize + "}";
+    }
+
+    private enum Setting {
+        CLEAR_TEXT_ENABLED,
+        ALPN_ENABLED,
+        INITIAL_WINDOW_SIZE,
+        CONNECTION_WINDOW_SIZE,
+        MAX_CONCURRENT_STREAMS,
+        HEADER_TABLE_SIZE,
+        MAX_FRAME_SIZE,
+        MAX_HEADER_LIST_SIZE
+    }
+}
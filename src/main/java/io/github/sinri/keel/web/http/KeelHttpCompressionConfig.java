@@ -0,0 +1,216 @@
+package io.github.sinri.keel.web.http;
+
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * {@link KeelHttpServer}的响应压缩配置。
+ * <p>
+ * 包括压缩级别、启用压缩的最小响应体大小、允许压缩的内容类型，以及是否在运行时可用时启用 Brotli 与 Zstandard。
+ * {@link #applyTo(HttpServerOptions)}在服务选项中启用压缩；大小与内容类型的判断由服务在每个响应写出头部前进行，
+ * 不满足条件的响应被标记为{@code Content-Encoding: identity}而不压缩。已设置{@code Content-Encoding}的响应（如预压缩的静态资源）不受影响。
+ * <p>
+ * Brotli 与 Zstandard 的编码器由 Netty 提供，且依赖可选的本地库；本类通过反射检测其可用性，不可用时仅使用 gzip 与 deflate。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+public final class KeelHttpCompressionConfig {
+    /**
+     * 请求上下文中登记本配置所用的键，供响应器判断是否压缩。
+     */
+    public static final String ROUTING_CONTEXT_KEY = "KEEL_HTTP_COMPRESSION_CONFIG";
+    private static final String COMPRESSION_PACKAGE = "io.netty.handler.codec.compression.";
+
+    private int level = 6;
+    private int contentSizeThreshold = 1024;
+    private List<String> contentTypes = new ArrayList<>(List.of(
+            "application/json",
+            "application/javascript",
+            "application/xml",
+            "application/x-ndjson",
+            "image/svg+xml",
+            "text/"
+    ));
+    private boolean brotliEnabled = false;
+    private boolean zstdEnabled = false;
+
+    public KeelHttpCompressionConfig() {
+    }
+
+    /**
+     * 从配置读取，字段为{@code level}、{@code content_size_threshold}、{@code content_types}（字符串数组）、
+     * {@code brotli_enabled}、{@code zstd_enabled}，缺省的字段保持默认值。
+     */
+    public static KeelHttpCompressionConfig fromJson(JsonObject json) {
+        KeelHttpCompressionConfig config = new KeelHttpCompressionConfig();
+        if (json.containsKey("level")) {
+            config.setLevel(json.getInteger("level"));
+        }
+        if (json.containsKey("content_size_threshold")) {
+            config.setContentSizeThreshold(json.getInteger("content_size_threshold"));
+        }
+        JsonArray contentTypes = json.getJsonArray("content_types");
+        if (contentTypes != null) {
+            List<String> list = new ArrayList<>();
+            contentTypes.forEach(item -> list.add(String.valueOf(item)));
+            config.setContentTypes(list);
+        }
+        if (json.containsKey("brotli_enabled")) {
+            config.setBrotliEnabled(json.getBoolean("brotli_enabled"));
+        }
+        if (json.containsKey("zstd_enabled")) {
+            config.setZstdEnabled(json.getBoolean("zstd_enabled"));
+        }
+        return config;
+    }
+
+    /**
+     * 在服务选项中启用压缩，并按可用性注册 gzip、deflate 与（如启用）Brotli、Zstandard 编码器。
+     *
+     * @return {@code options}
+     */
+    public HttpServerOptions applyTo(HttpServerOptions options) {
+        options.setCompressionSupported(true);
+        options.setCompressionLevel(level);
+        if (brotliEnabled || zstdEnabled) {
+            registerCompressors(options);
+        }
+        return options;
+    }
+
+    /**
+     * 判断是否压缩给定的响应。
+     *
+     * @param contentType   响应的内容类型，可带参数
+     * @param contentLength 响应体长度，未知时为负数
+     * @return 是否压缩
+     */
+    public boolean shouldCompress(@Nullable String contentType, long contentLength) {
+        if (contentLength >= 0 && contentLength < contentSizeThreshold) {
+            return false;
+        }
+        if (contentType == null) {
+            return false;
+        }
+        String normalized = contentType.toLowerCase(Locale.ROOT);
+        for (String allowed : contentTypes) {
+            if (normalized.startsWith(allowed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void registerCompressors(HttpServerOptions options) {
+        try {
+            Class<?> standardOptions = Class.forName(COMPRESSION_PACKAGE + "StandardCompressionOptions");
+            Class<?> compressionOptions = Class.forName(COMPRESSION_PACKAGE + "CompressionOptions");
+            Method addCompressor = HttpServerOptions.class.getMethod("addCompressor", compressionOptions);
+            List<Object> compressors = new ArrayList<>();
+            if (zstdEnabled && isCodecAvailable("Zstd")) {
+                compressors.add(standardOptions.getMethod("zstd").invoke(null));
+            }
+            if (brotliEnabled && isCodecAvailable("Brotli")) {
+                compressors.add(standardOptions.getMethod("brotli").invoke(null));
+            }
+            // 显式注册编码器后，默认的 gzip 与 deflate 不再自动启用，需一并注册
+            compressors.add(standardOptions.getMethod("gzip", int.class, int.class, int.class).invoke(null, level, 15, 8));
+            compressors.add(standardOptions.getMethod("deflate", int.class, int.class, int.class).invoke(null, level, 15, 8));
+            for (Object compressor : compressors) {
+                addCompressor.invoke(options, compressor);
+            }
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // 编码器不可用时保留默认的 gzip 与 deflate
+        }
+    }
+
+    private static boolean isCodecAvailable(String codecClassName) {
+        try {
+            return (Boolean) Class.forName(COMPRESSION_PACKAGE + codecClassName).getMethod("isAvailable").invoke(null);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return false;
+        }
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * @param level 压缩级别，取值 [1, 9]，越大压缩率越高、CPU 开销越大
+     */
+    public KeelHttpCompressionConfig setLevel(int level) {
+        if (level < 1 || level > 9) {
+            throw new IllegalArgumentException("level must be in [1, 9]");
+        }
+        this.level = level;
+        return this;
+    }
+
+    public int getContentSizeThreshold() {
+        return contentSizeThreshold;
+    }
+
+    /**
+     * @param contentSizeThreshold 启用压缩的最小响应体字节数；长度未知（分块传输）的响应不受此限制
+     */
+    public KeelHttpCompressionConfig setContentSizeThreshold(int contentSizeThreshold) {
+        if (contentSizeThreshold < 0) {
+            throw new IllegalArgumentException("contentSizeThreshold must not be negative");
+        }
+        this.contentSizeThreshold = contentSizeThreshold;
+        return this;
+    }
+
+    public List<String> getContentTypes() {
+        return List.copyOf(contentTypes);
+    }
+
+    /**
+     * @param contentTypes 允许压缩的内容类型前缀，如{@code application/json}、{@code text/}
+     */
+    public KeelHttpCompressionConfig setContentTypes(List<String> contentTypes) {
+        List<String> normalized = new ArrayList<>(contentTypes.size());
+        for (String contentType : contentTypes) {
+            normalized.add(contentType.toLowerCase(Locale.ROOT));
+        }
+        this.contentTypes = normalized;
+        return this;
+    }
+
+    public boolean isBrotliEnabled() {
+        return brotliEnabled;
+    }
+
+    public KeelHttpCompressionConfig setBrotliEnabled(boolean brotliEnabled) {
+        this.brotliEnabled = brotliEnabled;
+        return this;
+    }
+
+    public boolean isZstdEnabled() {
+        return zstdEnabled;
+    }
+
+    public KeelHttpCompressionConfig setZstdEnabled(boolean zstdEnabled) {
+        this.zstdEnabled = zstdEnabled;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "KeelHttpCompressionConfig{level=" + level
+                + ", contentSizeThreshold=" + contentSizeThreshold
+                + ", contentTypes=" + contentTypes
+                + ", brotliEnabled=" + brotliEnabled
+                + ", zstdEnabled=" + zstdEnabled + "}";
+    }
+}
@@ -5,20 +5,45 @@ import io.github.sinri.keel.base.verticles.KeelVerticleBase;
 import io.github.sinri.keel.core.utils.ReflectionUtils;
 import io.github.sinri.keel.logger.api.factory.LoggerFactory;
 import io.github.sinri.keel.logger.api.logger.Logger;
+import io.github.sinri.keel.web.http.receptionist.KeelWebFutureReceptionistInVirtualThread;
+import io.github.sinri.keel.web.utils.EventLoops;
+import io.vertx.core.Context;
 import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
 import io.vertx.core.ThreadingModel;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpServer;
 import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.HttpVersion;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
 import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * Keel HTTP 服务基础类。
+ * <p>
+ * 可通过{@link #deployInstances(Keel, Supplier, JsonObject)}部署多个实例，各实例在各自的上下文中创建{@link HttpServer}并监听同一端口，
+ * 由 Vert.x 在各实例之间分摊连接，使 HTTP 处理不再集中于单个事件循环。
+ * 路由默认由每个实例各自调用{@link #configureRoutes(Router)}构建；
+ * 若路由构建开销较大且各处理器均可被多个上下文并发调用，可令{@link #isRouterShared()}返回真，使同名的各实例共用首个实例构建的路由；
+ * 在途请求计数、虚拟线程上下文、响应压缩等各实例自己的处理不在共用范围内，仍由各实例处理。
+ * <p>
+ * 线程模型见{@link HttpServerThreadingMode}，由{@link #getThreadingMode()}决定，默认取自配置项{@value #CONFIG_HTTP_SERVER_THREADING_MODE}。
+ * <p>
+ * 停止时先进入排空阶段：不再接受新连接，HTTP/1.x 的响应附带{@code Connection: close}，HTTP/2 连接收到 GOAWAY，
+ * 在途请求在{@link #getDrainTimeout()}内处理完毕后再关闭服务；
+ * 同名各实例合计的在途请求数见{@link #getInFlightRequestCount()}，本实例的见{@link #getInstanceInFlightRequestCount()}。
  *
  * @since 5.0.0
  */
@@ -26,34 +51,333 @@ import java.util.Objects;
 abstract public class KeelHttpServer extends KeelVerticleBase {
     public static final String CONFIG_HTTP_SERVER_PORT = "http_server_port";
     public static final String CONFIG_HTTP_SERVER_OPTIONS = "http_server_options";
+    /**
+     * @since 5.0.2
+     */
+    public static final String CONFIG_HTTP_SERVER_INSTANCES = "http_server_instances";
+    /**
+     * 线程模型，取值为{@link HttpServerThreadingMode}的名称。
+     *
+     * @since 5.0.2
+     */
+    public static final String CONFIG_HTTP_SERVER_THREADING_MODE = "http_server_threading_mode";
+    /**
+     * HTTP/2 配置，格式见{@link KeelHttp2Config#fromJson(JsonObject)}。
+     *
+     * @since 5.0.2
+     */
+    public static final String CONFIG_HTTP_SERVER_HTTP2 = "http_server_http2";
+    /**
+     * 响应压缩配置，格式见{@link KeelHttpCompressionConfig#fromJson(JsonObject)}。
+     *
+     * @since 5.0.2
+     */
+    public static final String CONFIG_HTTP_SERVER_COMPRESSION = "http_server_compression";
+    /**
+     * 停止时排空在途请求的最长等待毫秒数，为 0 时立即关闭。
+     *
+     * @since 5.0.2
+     */
+    public static final String CONFIG_HTTP_SERVER_DRAIN_TIMEOUT = "http_server_drain_timeout";
+    private static final long DEFAULT_DRAIN_TIMEOUT_MILLIS = 10_000L;
+    private static final String IN_FLIGHT_GAUGE_MAP_NAME = "keel.web.http.server.in-flight";
     private static final int DEFAULT_HTTP_SERVER_PORT = 8080;
+    private static final String SHARED_ROUTER_MAP_NAME = "keel.web.http.server.routers";
 
     protected @Nullable HttpServer server;
     private @Nullable Logger httpServerLogger;
+    private @Nullable InFlightRequestGauge inFlightRequestGauge;
+    private final AtomicInteger instanceInFlightRequests = new AtomicInteger();
+    private @Nullable SharedRouterHolder sharedRouterHolder;
+    private @Nullable Context sharedRouterContext;
 
     public KeelHttpServer() {
         super();
     }
 
+    /**
+     * 部署若干实例，实例数取自配置项{@value #CONFIG_HTTP_SERVER_INSTANCES}，未配置时为事件循环线程数（见{@link EventLoops#getEventLoopPoolSize(Vertx)}）；
+     * 线程模型取自配置项{@value #CONFIG_HTTP_SERVER_THREADING_MODE}，未配置时与{@link #deployMe(Keel)}的默认行为相同。
+     *
+     * @param keel           Keel 实例
+     * @param serverSupplier 服务实例的提供者，每次调用应返回新实例
+     * @param config         服务配置
+     * @return 部署 ID
+     * @since 5.0.2
+     */
+    public static Future<String> deployInstances(Keel keel, Supplier<? extends KeelHttpServer> serverSupplier, JsonObject config) {
+        Integer instances = config.getInteger(CONFIG_HTTP_SERVER_INSTANCES);
+        if (instances == null) {
+            instances = EventLoops.getEventLoopPoolSize(keel);
+        }
+        DeploymentOptions deploymentOptions = buildDeploymentOptions(resolveThreadingMode(config))
+                .setConfig(config)
+                .setInstances(Math.max(1, instances));
+        return deployInstances(keel, serverSupplier, deploymentOptions);
+    }
+
+    /**
+     * 按给定的部署选项（包括实例数与线程模型）部署服务。
+     *
+     * @param keel              Keel 实例
+     * @param serverSupplier    服务实例的提供者，每次调用应返回新实例
+     * @param deploymentOptions 部署选项，实例数由{@link DeploymentOptions#setInstances(int)}指定
+     * @return 部署 ID
+     * @since 5.0.2
+     */
+    public static Future<String> deployInstances(Keel keel, Supplier<? extends KeelHttpServer> serverSupplier, DeploymentOptions deploymentOptions) {
+        return keel.deployVerticle(serverSupplier, deploymentOptions);
+    }
+
+    /**
+     * 按配置项{@value #CONFIG_HTTP_SERVER_THREADING_MODE}确定线程模型。
+     * 未配置时，运行时支持虚拟线程则为{@link HttpServerThreadingMode#VIRTUAL_THREAD}，否则为{@link HttpServerThreadingMode#EVENT_LOOP}；
+     * 运行时不支持虚拟线程时，{@link HttpServerThreadingMode#VIRTUAL_THREAD}按{@link HttpServerThreadingMode#EVENT_LOOP}处理。
+     *
+     * @since 5.0.2
+     */
+    public static HttpServerThreadingMode resolveThreadingMode(@Nullable JsonObject config) {
+        boolean virtualThreadsAvailable = ReflectionUtils.isVirtualThreadsAvailable();
+        String configured = config == null ? null : config.getString(CONFIG_HTTP_SERVER_THREADING_MODE);
+        if (configured == null) {
+            return virtualThreadsAvailable ? HttpServerThreadingMode.VIRTUAL_THREAD : HttpServerThreadingMode.EVENT_LOOP;
+        }
+        HttpServerThreadingMode mode = HttpServerThreadingMode.valueOf(configured.toUpperCase());
+        if (mode == HttpServerThreadingMode.VIRTUAL_THREAD && !virtualThreadsAvailable) {
+            return HttpServerThreadingMode.EVENT_LOOP;
+        }
+        return mode;
+    }
+
+    private static DeploymentOptions buildDeploymentOptions(HttpServerThreadingMode threadingMode) {
+        DeploymentOptions deploymentOptions = new DeploymentOptions();
+        if (threadingMode == HttpServerThreadingMode.VIRTUAL_THREAD) {
+            deploymentOptions.setThreadingModel(ThreadingModel.VIRTUAL_THREAD);
+        }
+        return deploymentOptions;
+    }
+
+    /**
+     * @return 本服务的线程模型；部署前调用时配置尚不可用，按未配置处理
+     * @since 5.0.2
+     */
+    protected HttpServerThreadingMode getThreadingMode() {
+        return resolveThreadingMode(this.config());
+    }
+
     protected int getHttpServerPort() {
         JsonObject config = this.config();
         if (config == null) return DEFAULT_HTTP_SERVER_PORT;
         return config.getInteger(CONFIG_HTTP_SERVER_PORT, DEFAULT_HTTP_SERVER_PORT);
     }
 
+    /**
+     * 读取服务选项，并在{@link #getHttp2Config()}、{@link #getCompressionConfig()}非空时分别应用其设置。
+     */
     protected HttpServerOptions getHttpServerOptions() {
+        @Nullable HttpServerOptions options = null;
         JsonObject config = this.config();
         if (config != null) {
             JsonObject httpServerOptions = config.getJsonObject(CONFIG_HTTP_SERVER_OPTIONS);
             if (httpServerOptions != null) {
-                return new HttpServerOptions(httpServerOptions);
+                options = new HttpServerOptions(httpServerOptions);
             }
         }
-        return new HttpServerOptions().setPort(getHttpServerPort());
+        if (options == null) {
+            options = new HttpServerOptions().setPort(getHttpServerPort());
+        }
+        KeelHttp2Config http2Config = getHttp2Config();
+        if (http2Config != null) {
+            http2Config.applyTo(options);
+        }
+        KeelHttpCompressionConfig compressionConfig = getCompressionConfig();
+        if (compressionConfig != null) {
+            compressionConfig.applyTo(options);
+        }
+        return options;
+    }
+
+    /**
+     * @return 响应压缩配置；默认取自配置项{@value #CONFIG_HTTP_SERVER_COMPRESSION}，未配置时为{@code null}，即保持服务选项原样
+     * @since 5.0.2
+     */
+    protected @Nullable KeelHttpCompressionConfig getCompressionConfig() {
+        JsonObject config = this.config();
+        if (config == null) return null;
+        JsonObject compression = config.getJsonObject(CONFIG_HTTP_SERVER_COMPRESSION);
+        if (compression == null) return null;
+        return KeelHttpCompressionConfig.fromJson(compression);
+    }
+
+    /**
+     * @return HTTP/2 配置；默认取自配置项{@value #CONFIG_HTTP_SERVER_HTTP2}，未配置时为{@code null}，即保持服务选项原样
+     * @since 5.0.2
+     */
+    protected @Nullable KeelHttp2Config getHttp2Config() {
+        JsonObject config = this.config();
+        if (config == null) return null;
+        JsonObject http2 = config.getJsonObject(CONFIG_HTTP_SERVER_HTTP2);
+        if (http2 == null) return null;
+        return KeelHttp2Config.fromJson(http2);
     }
 
     protected abstract void configureRoutes(Router router);
 
+    /**
+     * 为真时，路由由同名的各实例中首个启动的实例调用{@link #configureRoutes(Router)}构建，其余实例直接复用，
+     * 直到所有实例都停止；因此{@link #configureRoutes(Router)}中的处理器不应依赖构建路由的实例自身的状态。
+     *
+     * @return 是否与同名的其他实例共用同一个路由；默认为假，即每个实例各自构建
+     * @since 5.0.2
+     */
+    protected boolean isRouterShared() {
+        return false;
+    }
+
+    /**
+     * @return 服务名称，{@link #isRouterShared()}为真时同名的各实例共用路由；默认为类名
+     * @since 5.0.2
+     */
+    protected String getHttpServerName() {
+        return getClass().getName();
+    }
+
+    /**
+     * @return 停止时排空在途请求的最长等待毫秒数；默认取自配置项{@value #CONFIG_HTTP_SERVER_DRAIN_TIMEOUT}，未配置时为 10 秒
+     * @since 5.0.2
+     */
+    protected long getDrainTimeout() {
+        JsonObject config = this.config();
+        if (config == null) return DEFAULT_DRAIN_TIMEOUT_MILLIS;
+        return config.getLong(CONFIG_HTTP_SERVER_DRAIN_TIMEOUT, DEFAULT_DRAIN_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @return 同名的各实例合计的在途请求数，即已进入路由而响应尚未结束的请求数
+     * @since 5.0.2
+     */
+    public final int getInFlightRequestCount() {
+        return getInFlightRequestGauge().getInFlightRequests();
+    }
+
+    /**
+     * @return 本实例的在途请求数，排空时以此判断本实例是否处理完毕
+     * @since 5.0.2
+     */
+    public final int getInstanceInFlightRequestCount() {
+        return instanceInFlightRequests.get();
+    }
+
+    /**
+     * @return 同名的实例中是否有正在排空的实例
+     * @since 5.0.2
+     */
+    public final boolean isDraining() {
+        return getInFlightRequestGauge().isDraining();
+    }
+
+    private InFlightRequestGauge getInFlightRequestGauge() {
+        InFlightRequestGauge gauge = this.inFlightRequestGauge;
+        if (gauge == null) {
+            LocalMap<String, InFlightRequestGauge> gaugeMap = getKeel().sharedData().getLocalMap(IN_FLIGHT_GAUGE_MAP_NAME);
+            InFlightRequestGauge created = new InFlightRequestGauge();
+            InFlightRequestGauge existing = gaugeMap.putIfAbsent(getHttpServerName(), created);
+            gauge = existing != null ? existing : created;
+            this.inFlightRequestGauge = gauge;
+        }
+        return gauge;
+    }
+
+    /**
+     * 构建本实例自己的前置处理器：计入在途请求，在{@link HttpServerThreadingMode#HYBRID}模式下标记请求可转交到虚拟线程，并放入本实例的响应压缩配置。
+     */
+    private Handler<RoutingContext> buildInstancePrelude() {
+        InFlightRequestGauge gauge = getInFlightRequestGauge();
+        AtomicInteger instanceInFlight = this.instanceInFlightRequests;
+        boolean hybrid = getThreadingMode() == HttpServerThreadingMode.HYBRID && ReflectionUtils.isVirtualThreadsAvailable();
+        KeelHttpCompressionConfig compressionConfig = getCompressionConfig();
+        return routingContext -> {
+            gauge.requestStarted();
+            instanceInFlight.incrementAndGet();
+            routingContext.addEndHandler(ar -> {
+                gauge.requestEnded();
+                instanceInFlight.decrementAndGet();
+            });
+            if (gauge.isDraining() && routingContext.request().version() != HttpVersion.HTTP_2) {
+                routingContext.response().putHeader(HttpHeaders.CONNECTION, HttpHeaders.CLOSE);
+            }
+            if (hybrid) {
+                routingContext.put(KeelWebFutureReceptionistInVirtualThread.VIRTUAL_THREAD_CONTEXT_KEY, Boolean.TRUE);
+            }
+            if (compressionConfig != null) {
+                routingContext.put(KeelHttpCompressionConfig.ROUTING_CONTEXT_KEY, compressionConfig);
+                routingContext.addHeadersEndHandler(v -> {
+                    MultiMap headers = routingContext.response().headers();
+                    if (headers.contains(HttpHeaders.CONTENT_ENCODING)) {
+                        return;
+                    }
+                    String contentLength = headers.get(HttpHeaders.CONTENT_LENGTH);
+                    long length = -1;
+                    if (contentLength != null) {
+                        try {
+                            length = Long.parseLong(contentLength);
+                        } catch (NumberFormatException ignored) {
+                            // 按长度未知处理
+                        }
+                    }
+                    if (!compressionConfig.shouldCompress(headers.get(HttpHeaders.CONTENT_TYPE), length)) {
+                        headers.set(HttpHeaders.CONTENT_ENCODING, HttpHeaders.IDENTITY);
+                    }
+                });
+            }
+            routingContext.next();
+        };
+    }
+
+    private Router getOrBuildRouter() {
+        Handler<RoutingContext> instancePrelude = buildInstancePrelude();
+        if (!isRouterShared()) {
+            Router router = Router.router(getKeel());
+            router.route().handler(instancePrelude);
+            this.configureRoutes(router);
+            return router;
+        }
+        Context context = Objects.requireNonNull(Vertx.currentContext());
+        LocalMap<String, SharedRouterHolder> routerMap = getKeel().sharedData().getLocalMap(SHARED_ROUTER_MAP_NAME);
+        while (true) {
+            SharedRouterHolder created = new SharedRouterHolder();
+            SharedRouterHolder existing = routerMap.putIfAbsent(getHttpServerName(), created);
+            SharedRouterHolder holder = existing != null ? existing : created;
+            Router router = holder.acquire(context, instancePrelude, () -> {
+                Router built = Router.router(getKeel());
+                built.route().handler(holder::dispatchInstancePrelude);
+                this.configureRoutes(built);
+                return built;
+            });
+            if (router != null) {
+                this.sharedRouterHolder = holder;
+                this.sharedRouterContext = context;
+                return router;
+            }
+            // 已失效的对象尚未被其最后的使用者移除
+            routerMap.remove(getHttpServerName(), holder);
+        }
+    }
+
+    /**
+     * 释放对共享路由的引用；最后一个引用释放时从共享数据中移除，以便其后启动的实例重新构建。
+     */
+    private void releaseSharedRouter() {
+        SharedRouterHolder holder = this.sharedRouterHolder;
+        Context context = this.sharedRouterContext;
+        this.sharedRouterHolder = null;
+        this.sharedRouterContext = null;
+        if (holder != null && context != null && holder.release(context)) {
+            LocalMap<String, SharedRouterHolder> routerMap = getKeel().sharedData().getLocalMap(SHARED_ROUTER_MAP_NAME);
+            routerMap.remove(getHttpServerName(), holder);
+        }
+    }
+
     /**
      * Executes tasks or setup logic that needs to be completed before the HTTP server starts.
      * This method returns a future that signifies the completion of any preparatory operations
@@ -87,12 +411,9 @@ abstract public class KeelHttpServer extends KeelVerticleBase {
         var server = getKeel().createHttpServer(getHttpServerOptions());
         this.server = server;
 
-        Router router = Router.router(getKeel());
-        this.configureRoutes(router);
-
         return beforeStartServer()
                 .compose(v0 -> server
-                        .requestHandler(router)
+                        .requestHandler(getOrBuildRouter())
                         .exceptionHandler(throwable -> getHttpServerLogger().error(r -> r.message("KeelHttpServer Exception")
                                                                                          .exception(throwable)))
                         .listen()
@@ -104,7 +425,8 @@ abstract public class KeelHttpServer extends KeelVerticleBase {
                             getHttpServerLogger().error(r -> r.message("Listen failed")
                                                               .exception(throwable));
                             return Future.failedFuture(throwable);
-                        }));
+                        }))
+                .onFailure(throwable -> releaseSharedRouter());
     }
 
     protected final Logger buildHttpServerLogger() {
@@ -118,7 +440,8 @@ abstract public class KeelHttpServer extends KeelVerticleBase {
     @Override
     protected Future<Void> stopVerticle() {
         if (server == null) return Future.succeededFuture();
-        return server.close()
+        return drainAndClose(server)
+                     .andThen(ar -> releaseSharedRouter())
                      .compose(v -> {
                          getHttpServerLogger().info(r -> r.message("HTTP Server Closed"));
                          return afterShutdownServer()
@@ -137,18 +460,39 @@ abstract public class KeelHttpServer extends KeelVerticleBase {
     }
 
 
+    /**
+     * 排空并关闭服务：不再接受新连接，并在排空时限内等待现有连接上的在途请求结束；时限为 0 时立即关闭。
+     */
+    private Future<Void> drainAndClose(HttpServer httpServer) {
+        long drainTimeout = getDrainTimeout();
+        if (drainTimeout <= 0) {
+            return httpServer.close();
+        }
+        InFlightRequestGauge gauge = getInFlightRequestGauge();
+        gauge.drainStarted();
+        int inFlightAtStart = getInstanceInFlightRequestCount();
+        int totalInFlightAtStart = gauge.getInFlightRequests();
+        getHttpServerLogger().info(r -> r.message("HTTP Server Draining, In-flight Requests: " + inFlightAtStart
+                + " (all instances: " + totalInFlightAtStart + "), Timeout: " + drainTimeout + " ms"));
+        return httpServer.shutdown(drainTimeout, TimeUnit.MILLISECONDS)
+                         .andThen(ar -> {
+                             gauge.drainEnded();
+                             int remaining = getInstanceInFlightRequestCount();
+                             if (remaining > 0) {
+                                 getHttpServerLogger().error(r -> r.message("HTTP Server Drain Deadline Reached, In-flight Requests: " + remaining));
+                             }
+                         });
+    }
+
     /**
      * Deploys the current verticle with an appropriate threading model configuration.
-     * If virtual threads are available, the deployment options will be set to use the virtual threading model.
+     * The threading model follows {@link #getThreadingMode()}: only {@link HttpServerThreadingMode#VIRTUAL_THREAD}
+     * deploys the verticle itself with the virtual threading model.
      *
      * @return a {@link Future} that completes with the deployment ID if the deployment is successful,
      *         or fails with an exception if the deployment fails.
      */
     public Future<String> deployMe(Keel keel) {
-        DeploymentOptions deploymentOptions = new DeploymentOptions();
-        if (ReflectionUtils.isVirtualThreadsAvailable()) {
-            deploymentOptions.setThreadingModel(ThreadingModel.VIRTUAL_THREAD);
-        }
-        return super.deployMe(keel, deploymentOptions);
+        return super.deployMe(keel, buildDeploymentOptions(getThreadingMode()));
     }
 }
@@ -0,0 +1,85 @@
+package io.github.sinri.keel.web.http;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.Shareable;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 在同一服务的各实例之间共享的{@link Router}，首个需要的实例构建之后由其余实例复用。
+ * 实现了{@link Shareable}，以便存放在本地共享数据中而不被复制。
+ * <p>
+ * 共享的路由只包含各实例共通的路由；各实例自己的前置处理器（携带该实例的状态）按实例的上下文登记在本对象中，
+ * 由共享路由的首个处理器按处理请求的上下文分派，因而不会被其他实例借用。
+ * <p>
+ * 按引用计数管理：每个实例启动时{@link #acquire(Context, Handler, Supplier)}，停止时{@link #release(Context)}；
+ * 最后一个实例释放后本对象失效，应从共享数据中移除，其后启动的实例重新构建路由。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+final class SharedRouterHolder implements Shareable {
+    private final Map<Context, Handler<RoutingContext>> instancePreludes = new ConcurrentHashMap<>();
+    private @Nullable Router router;
+    private int references;
+    private boolean released;
+
+    /**
+     * 登记实例的前置处理器并取得共享的路由，必要时先构建。
+     *
+     * @param instanceContext 实例处理请求的上下文
+     * @param instancePrelude 实例的前置处理器，须在处理完毕后调用{@link RoutingContext#next()}
+     * @param routesBuilder   构建共通路由的方法，所建路由须以{@link #dispatchInstancePrelude(RoutingContext)}为首个处理器
+     * @return 共享的路由；本对象已失效时返回{@code null}
+     */
+    synchronized @Nullable Router acquire(Context instanceContext, Handler<RoutingContext> instancePrelude, Supplier<Router> routesBuilder) {
+        if (released) {
+            return null;
+        }
+        Router built = this.router;
+        if (built == null) {
+            built = routesBuilder.get();
+            this.router = built;
+        }
+        instancePreludes.put(instanceContext, instancePrelude);
+        references++;
+        return built;
+    }
+
+    /**
+     * 撤销实例的前置处理器。
+     *
+     * @return 是否为最后一个引用，此时本对象失效
+     */
+    synchronized boolean release(Context instanceContext) {
+        instancePreludes.remove(instanceContext);
+        references--;
+        if (references > 0) {
+            return false;
+        }
+        released = true;
+        router = null;
+        return true;
+    }
+
+    /**
+     * 共享路由的首个处理器：按当前上下文找到实例的前置处理器并交由其处理。
+     */
+    void dispatchInstancePrelude(RoutingContext routingContext) {
+        Context context = Vertx.currentContext();
+        @Nullable Handler<RoutingContext> instancePrelude = context == null ? null : instancePreludes.get(context);
+        if (instancePrelude != null) {
+            instancePrelude.handle(routingContext);
+        } else {
+            routingContext.next();
+        }
+    }
+}
@@ -4,32 +4,64 @@ import io.github.sinri.keel.web.http.fastdocs.page.CataloguePageBuilder;
 import io.github.sinri.keel.web.http.fastdocs.page.MarkdownCssBuilder;
 import io.github.sinri.keel.web.http.fastdocs.page.MarkdownPageBuilder;
 import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.file.FileProps;
+import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerResponse;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.StaticHandler;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URLConnection;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * 提供一个基于 Markdown 文件系统的文档系统。
+ * <p>
+ * 静态资源由{@link StaticHandler}从{@value StaticHandler#DEFAULT_WEB_ROOT}提供；
+ * 客户端接受 Brotli 或 gzip 编码且存在同名的{@code .br}或{@code .gz}预压缩文件时，直接返回预压缩文件（可通过{@link #setPrecompressedAssetsEnabled(boolean)}关闭）；
+ * 预压缩文件以{@link HttpServerResponse#sendFile(String, long, long)}发送，并与{@link StaticHandler}一样附带缓存与校验头部，
+ * 支持条件请求（304）、{@code HEAD}与单一区间的{@code Range}请求。
  *
  * @since 5.0.0
  */
 @NullMarked
 public class KeelFastDocsKit {
+    private static final int MISSING_PRECOMPRESSED_ASSET_CACHE_SIZE = 1024;
     private final StaticHandler staticHandler;
     private final String rootURLPath;
     private final String rootMarkdownFilePath;
 
     private String documentSubject = "FastDocs";
     private String footerText = "Public Domain";
+    private boolean precompressedAssetsEnabled = true;
+    /**
+     * 最近确认不存在的预压缩文件路径，按最近使用淘汰，以免任意请求路径使其无限增长。
+     */
+    private final Set<String> missingPrecompressedAssets = Collections.newSetFromMap(Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > MISSING_PRECOMPRESSED_ASSET_CACHE_SIZE;
+                }
+            }));
 
     /**
      * @param rootURLPath          such as `/prefix/`
@@ -82,6 +114,15 @@ public class KeelFastDocsKit {
         return this;
     }
 
+    /**
+     * @param precompressedAssetsEnabled 是否在存在预压缩文件时直接返回之
+     * @since 5.0.2
+     */
+    public KeelFastDocsKit setPrecompressedAssetsEnabled(boolean precompressedAssetsEnabled) {
+        this.precompressedAssetsEnabled = precompressedAssetsEnabled;
+        return this;
+    }
+
     public void processRouterRequest(RoutingContext ctx) {
         if (!Objects.equals(ctx.request().method(), HttpMethod.GET)) {
             ctx.response().setStatusCode(405).end();
@@ -176,6 +217,190 @@ public class KeelFastDocsKit {
     }
 
     protected void processRequestWithStaticPath(PageBuilderOptions options) {
-        this.staticHandler.handle(options.ctx);
+        RoutingContext ctx = options.ctx;
+        String acceptEncoding = ctx.request().getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (!precompressedAssetsEnabled) {
+            this.staticHandler.handle(ctx);
+            return;
+        }
+        HttpMethod method = ctx.request().method();
+        if (acceptEncoding == null || (method != HttpMethod.GET && method != HttpMethod.HEAD)) {
+            handleWithStaticHandler(ctx);
+            return;
+        }
+        getRelativePathOfRequest(ctx)
+                .onComplete(ar -> {
+                    if (ar.failed()) {
+                        handleWithStaticHandler(ctx);
+                        return;
+                    }
+                    List<String[]> candidates = new ArrayList<>(2);
+                    if (acceptsEncoding(acceptEncoding, "br")) {
+                        candidates.add(new String[]{"br", ".br"});
+                    }
+                    if (acceptsEncoding(acceptEncoding, "gzip")) {
+                        candidates.add(new String[]{"gzip", ".gz"});
+                    }
+                    respondWithPrecompressedAsset(ctx, StaticHandler.DEFAULT_WEB_ROOT + "/" + ar.result(), candidates, 0);
+                });
+    }
+
+    /**
+     * 依次尝试各候选编码的预压缩文件，均不存在时交给{@link StaticHandler}。
+     *
+     * @since 5.0.2
+     */
+    private void respondWithPrecompressedAsset(RoutingContext ctx, String assetPath, List<String[]> candidates, int index) {
+        if (index >= candidates.size()) {
+            handleWithStaticHandler(ctx);
+            return;
+        }
+        String encoding = candidates.get(index)[0];
+        String compressedPath = assetPath + candidates.get(index)[1];
+        if (missingPrecompressedAssets.contains(compressedPath)) {
+            respondWithPrecompressedAsset(ctx, assetPath, candidates, index + 1);
+            return;
+        }
+        ctx.vertx().fileSystem().props(compressedPath)
+           .onComplete(ar -> {
+               if (ar.failed() || !ar.result().isRegularFile()) {
+                   missingPrecompressedAssets.add(compressedPath);
+                   respondWithPrecompressedAsset(ctx, assetPath, candidates, index + 1);
+                   return;
+               }
+               sendPrecompressedAsset(ctx, assetPath, compressedPath, encoding, ar.result());
+           });
+    }
+
+    /**
+     * 发送预压缩文件，缓存与校验头部的写法与{@link StaticHandler}一致；实体标签按编码区分。
+     *
+     * @since 5.0.2
+     */
+    private void sendPrecompressedAsset(RoutingContext ctx, String assetPath, String compressedPath, String encoding, FileProps props) {
+        HttpServerResponse response = ctx.response();
+        long size = props.size();
+        String etag = "\"" + Long.toHexString(props.lastModifiedTime()) + "-" + Long.toHexString(size) + "-" + encoding + "\"";
+        String contentType = URLConnection.guessContentTypeFromName(assetPath);
+        MultiMap headers = response.headers();
+        headers.set(HttpHeaders.CONTENT_TYPE, contentType != null ? contentType : "application/octet-stream")
+               .set(HttpHeaders.CONTENT_ENCODING, encoding)
+               .add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+               .set(HttpHeaders.CACHE_CONTROL, "public, immutable, max-age=" + StaticHandler.DEFAULT_MAX_AGE_SECONDS)
+               .set(HttpHeaders.LAST_MODIFIED, formatHttpDate(props.lastModifiedTime()))
+               .set(HttpHeaders.ETAG, etag)
+               .set(HttpHeaders.ACCEPT_RANGES, "bytes")
+               .set(HttpHeaders.DATE, formatHttpDate(System.currentTimeMillis()));
+        if (ctx.isFresh()) {
+            response.setStatusCode(304).end();
+            return;
+        }
+
+        long offset = 0;
+        long length = size;
+        String range = ctx.request().getHeader(HttpHeaders.RANGE);
+        String ifRange = ctx.request().getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] byteRange = parseByteRange(range, size);
+            if (byteRange != null) {
+                if (byteRange.length == 0) {
+                    headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    response.setStatusCode(416).end();
+                    return;
+                }
+                offset = byteRange[0];
+                length = byteRange[1] - byteRange[0] + 1;
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + byteRange[0] + "-" + byteRange[1] + "/" + size);
+                response.setStatusCode(206);
+            }
+        }
+
+        if (ctx.request().method() == HttpMethod.HEAD) {
+            headers.set(HttpHeaders.CONTENT_LENGTH, String.valueOf(length));
+            response.end();
+            return;
+        }
+        response.sendFile(compressedPath, offset, length)
+                .onFailure(throwable -> {
+                    if (!response.headWritten()) {
+                        ctx.fail(throwable);
+                    }
+                });
+    }
+
+    /**
+     * 解析单一区间的{@code Range}头部。
+     *
+     * @return 闭区间{@code [start, end]}；区间无法满足时为空数组；格式不支持（含多个区间）时为{@code null}，即按完整内容响应
+     */
+    private static long @Nullable [] parseByteRange(String range, long size) {
+        if (!range.startsWith("bytes=") || range.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = range.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                if (last.isEmpty()) {
+                    return null;
+                }
+                long suffixLength = Long.parseLong(last);
+                if (suffixLength <= 0 || size == 0) {
+                    return new long[0];
+                }
+                return new long[]{Math.max(0, size - suffixLength), size - 1};
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            if (start >= size || start > end) {
+                return new long[0];
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String formatHttpDate(long epochMillis) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(epochMillis).atZone(ZoneOffset.UTC));
+    }
+
+    /**
+     * 启用预压缩文件时，交给{@link StaticHandler}的响应同样随{@code Accept-Encoding}而不同，故附带{@code Vary}，以免缓存将其提供给其他客户端。
+     *
+     * @since 5.0.2
+     */
+    private void handleWithStaticHandler(RoutingContext ctx) {
+        ctx.response().headers().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        this.staticHandler.handle(ctx);
+    }
+
+    /**
+     * @return {@code Accept-Encoding}是否接受{@code encoding}（未显式以{@code q=0}排除）
+     */
+    private static boolean acceptsEncoding(String acceptEncoding, String encoding) {
+        for (String item : acceptEncoding.split(",")) {
+            String[] parts = item.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase(encoding)) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(parameter.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
     }
 }
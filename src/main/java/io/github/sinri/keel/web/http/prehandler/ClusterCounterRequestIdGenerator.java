@@ -0,0 +1,46 @@
+package io.github.sinri.keel.web.http.prehandler;
+
+import io.github.sinri.keel.core.utils.NetUtils;
+import io.vertx.core.Future;
+import io.vertx.core.shareddata.Counter;
+import io.vertx.ext.web.RoutingContext;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * 基于 Vert.x 共享计数器的请求 ID 生成器。
+ * <p>
+ * 即 5.0.2 之前{@link KeelPlatformHandler}的默认行为：请求 ID 形如{@code 主机地址-计数器值-UUID}。
+ * 集群模式下计数器为集群级，每个请求需要一次网络往返。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+final class ClusterCounterRequestIdGenerator implements RequestIdGenerator {
+    private static final String COUNTER_NAME = "KeelPlatformHandler-RequestID-Counter";
+    private static final ClusterCounterRequestIdGenerator instance = new ClusterCounterRequestIdGenerator();
+
+    private ClusterCounterRequestIdGenerator() {
+    }
+
+    static ClusterCounterRequestIdGenerator getInstance() {
+        return instance;
+    }
+
+    @Override
+    public @Nullable String generate(RoutingContext routingContext) {
+        return null;
+    }
+
+    @Override
+    public Future<String> generateAsync(RoutingContext routingContext) {
+        return routingContext.vertx().sharedData()
+                             .getCounter(COUNTER_NAME)
+                             .compose(Counter::incrementAndGet)
+                             .recover(throwable -> Future.succeededFuture(new Random().nextLong() * -1))
+                             .map(id -> "%s-%s-%s".formatted(NetUtils.getLocalHostAddress(), id, UUID.randomUUID()));
+    }
+}
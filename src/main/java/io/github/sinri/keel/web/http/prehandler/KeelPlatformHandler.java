@@ -1,20 +1,17 @@
 package io.github.sinri.keel.web.http.prehandler;
 
-import io.github.sinri.keel.core.utils.NetUtils;
-import io.vertx.core.Future;
-import io.vertx.core.shareddata.Counter;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.PlatformHandler;
 import org.jspecify.annotations.NullMarked;
 
-import java.util.Random;
-import java.util.UUID;
-
 
 /**
  * 平台级处理器。
  * <p>
  * 向{@link RoutingContext}的数据记录中添加请求 ID 和请求到达时间。
+ * <p>
+ * 请求 ID 由{@link RequestIdGenerator}生成；默认使用节点本地生成器同步生成，无需暂停请求。
+ * 如选用只能异步生成的实现（如{@link RequestIdGenerator#clusterCounter()}），则在生成期间暂停请求。
  *
  * @since 5.0.0
  */
@@ -23,31 +20,47 @@ public class KeelPlatformHandler implements PlatformHandler {
     public final static String KEEL_REQUEST_ID = "KEEL_REQUEST_ID"; // -> String
     public final static String KEEL_REQUEST_START_TIME = "KEEL_REQUEST_START_TIME"; // -> long * 0.001 second
 
+    private final RequestIdGenerator requestIdGenerator;
 
     public KeelPlatformHandler() {
+        this(RequestIdGenerator.local());
+    }
+
+    /**
+     * @param requestIdGenerator 请求 ID 生成器
+     * @since 5.0.2
+     */
+    public KeelPlatformHandler(RequestIdGenerator requestIdGenerator) {
+        this.requestIdGenerator = requestIdGenerator;
     }
 
     @Override
     public void handle(RoutingContext routingContext) {
+        routingContext.put(KEEL_REQUEST_START_TIME, System.currentTimeMillis());
+
+        String requestId = requestIdGenerator.generate(routingContext);
+        if (requestId != null) {
+            routingContext.put(KEEL_REQUEST_ID, requestId);
+            routingContext.next();
+            return;
+        }
+
         // BEFORE ASYNC PAUSE
         routingContext.request().pause();
         // START !
-        routingContext.vertx().sharedData()
-                      .getCounter("KeelPlatformHandler-RequestID-Counter")
-                      .compose(Counter::incrementAndGet)
-                      .recover(throwable -> Future.succeededFuture(new Random().nextLong() * -1))
-                      .compose(id -> {
-                          routingContext.put(KEEL_REQUEST_ID, "%s-%s-%s".formatted(NetUtils.getLocalHostAddress(), id, UUID.randomUUID()));
-
-                          routingContext.put(KEEL_REQUEST_START_TIME, System.currentTimeMillis());
-
-                          return Future.succeededFuture();
-                      })
-                      .andThen(v -> {
-                          // RESUME
-                          routingContext.request().resume();
-                          // NEXT !
-                          routingContext.next();
-                      });
+        requestIdGenerator.generateAsync(routingContext)
+                          .andThen(ar -> {
+                              if (ar.succeeded()) {
+                                  routingContext.put(KEEL_REQUEST_ID, ar.result());
+                              }
+                              // RESUME
+                              routingContext.request().resume();
+                              if (ar.succeeded()) {
+                                  // NEXT !
+                                  routingContext.next();
+                              } else {
+                                  routingContext.fail(ar.cause());
+                              }
+                          });
     }
 }
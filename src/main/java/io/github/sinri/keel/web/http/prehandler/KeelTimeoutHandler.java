@@ -0,0 +1,48 @@
+package io.github.sinri.keel.web.http.prehandler;
+
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.TimeoutHandler;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * 可在处理过程中取消的超时处理器。
+ * <p>
+ * 行为与{@link TimeoutHandler#create(long, int)}一致：超时后以给定的状态码使请求失败，响应体结束时取消计时；
+ * 此外将计时器记录在请求上下文中，使已开始长时间输出的响应（如流式导出）可以通过{@link #cancel(RoutingContext)}取消超时。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+public final class KeelTimeoutHandler implements TimeoutHandler {
+    private static final String TIMER_ID_KEY = "keel.web.route.timeout.timer";
+
+    private final long timeout;
+    private final int statusCode;
+
+    KeelTimeoutHandler(long timeout, int statusCode) {
+        this.timeout = timeout;
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * 取消当前请求的路由超时。
+     *
+     * @param routingContext 请求上下文
+     * @return 是否取消了尚未触发的超时
+     */
+    public static boolean cancel(RoutingContext routingContext) {
+        Long timerId = routingContext.remove(TIMER_ID_KEY);
+        return timerId != null && routingContext.vertx().cancelTimer(timerId);
+    }
+
+    @Override
+    public void handle(RoutingContext routingContext) {
+        long timerId = routingContext.vertx().setTimer(timeout, t -> {
+            routingContext.remove(TIMER_ID_KEY);
+            routingContext.fail(statusCode);
+        });
+        routingContext.put(TIMER_ID_KEY, timerId);
+        routingContext.addBodyEndHandler(v -> cancel(routingContext));
+        routingContext.next();
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.sinri.keel.web.http.prehandler;
+
+import io.github.sinri.keel.core.utils.NetUtils;
+import io.vertx.ext.web.RoutingContext;
+import org.jspecify.annotations.NullMarked;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 节点本地的请求 ID 生成器。
+ * <p>
+ * 生成的请求 ID 形如{@code 主机地址-进程随机数-毫秒时间戳-分片号-分片序号}，各段（除主机地址外）为十六进制。
+ * 主机地址与进程随机数在类加载时计算并缓存；毫秒时间戳位于分片信息之前，使请求 ID 大致按时间排序；
+ * 序号按线程分片递增，不同线程之间基本不会竞争同一个计数器，也不需要任何异步操作。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+final class LocalRequestIdGenerator implements RequestIdGenerator {
+    private static final LocalRequestIdGenerator instance = new LocalRequestIdGenerator();
+    /**
+     * 分片数量，必须为 2 的幂。
+     */
+    private static final int STRIPES = 64;
+    /**
+     * 每个分片计数器在数组中所占的槽位数，用于避免伪共享（8 * 8 字节 = 一条缓存行）。
+     */
+    private static final int PADDING = 8;
+
+    private final String prefix;
+    private final AtomicLongArray sequences = new AtomicLongArray(STRIPES * PADDING);
+
+    private LocalRequestIdGenerator() {
+        String host = String.valueOf(NetUtils.getLocalHostAddress());
+        int nonce = new SecureRandom().nextInt();
+        this.prefix = host + "-" + Integer.toHexString(nonce) + "-";
+    }
+
+    static LocalRequestIdGenerator getInstance() {
+        return instance;
+    }
+
+    @Override
+    public String generate(RoutingContext routingContext) {
+        int stripe = (int) (Thread.currentThread().getId() & (STRIPES - 1));
+        long sequence = sequences.incrementAndGet(stripe * PADDING);
+        return new StringBuilder(prefix.length() + 32)
+                .append(prefix)
+                .append(Long.toHexString(System.currentTimeMillis()))
+                .append('-')
+                .append(Integer.toHexString(stripe))
+                .append('-')
+                .append(Long.toHexString(sequence))
+                .toString();
+    }
+}
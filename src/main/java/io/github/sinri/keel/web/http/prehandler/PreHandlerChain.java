@@ -1,8 +1,10 @@
 package io.github.sinri.keel.web.http.prehandler;
 
 import io.github.sinri.keel.web.http.receptionist.ApiMeta;
+import io.github.sinri.keel.web.http.receptionist.RequestBodyMode;
 import io.vertx.core.Handler;
 import io.vertx.ext.web.Route;
+import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.*;
 import org.jspecify.annotations.NullMarked;
@@ -10,6 +12,8 @@ import org.jspecify.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 对一个请求进行预处理的预处理器链。
@@ -21,6 +25,23 @@ import java.util.List;
  */
 @NullMarked
 public class PreHandlerChain {
+    /**
+     * 无状态，全局共享。
+     */
+    private static final ResponseTimeHandler sharedResponseTimeHandler = ResponseTimeHandler.create();
+    /**
+     * 按超时时长与超时状态码驻留的超时处理器，相同配置的路由共享同一个实例。
+     */
+    private static final Map<TimeoutKey, TimeoutHandler> sharedTimeoutHandlers = new ConcurrentHashMap<>();
+    /**
+     * 按上传目录与请求体大小上限驻留的请求体处理器，相同配置的路由共享同一个实例。
+     */
+    private static final Map<BodyHandlerKey, BodyHandler> sharedBodyHandlers = new ConcurrentHashMap<>();
+    /**
+     * 按请求体大小上限驻留的流式请求体预处理器。
+     */
+    private static final Map<Long, StreamingBodyPreHandler> sharedStreamingBodyPreHandlers = new ConcurrentHashMap<>();
+
     /**
      * @see KeelPlatformHandler
      */
@@ -43,6 +64,14 @@ public class PreHandlerChain {
     protected final List<Handler<RoutingContext>> userHandlers = new ArrayList<>();
     protected String uploadDirectory = BodyHandler.DEFAULT_UPLOADS_DIRECTORY;
     protected @Nullable Handler<RoutingContext> failureHandler = null;
+    /**
+     * 平台处理器使用的请求 ID 生成器，默认为节点本地生成器。
+     * 如需沿用基于共享计数器的旧行为，可在子类构造方法中设为{@link RequestIdGenerator#clusterCounter()}。
+     *
+     * @since 5.0.2
+     */
+    protected RequestIdGenerator requestIdGenerator = RequestIdGenerator.local();
+    private @Nullable KeelPlatformHandler platformHandler;
 
     public PreHandlerChain() {
     }
@@ -59,14 +88,41 @@ public class PreHandlerChain {
     }
 
     public final void executeHandlers(Route route, ApiMeta apiMeta) {
+        executeHandlers(route, apiMeta, false);
+    }
+
+    /**
+     * 在接口路由上挂载本预处理器链的各处理器。
+     *
+     * @param route          接口路由
+     * @param apiMeta        接口元信息
+     * @param preludeMounted 路由器上是否已通过{@link #mountPrelude(Router)}挂载了前导处理器；
+     *                       如是，则不再在接口路由上重复挂载平台处理器与响应时间处理器
+     * @since 5.0.2
+     */
+    public final void executeHandlers(Route route, ApiMeta apiMeta, boolean preludeMounted) {
         // === HANDLERS WEIGHT IN ORDER ===
         // PLATFORM
-        route.handler(new KeelPlatformHandler());
+        if (!preludeMounted) {
+            route.handler(getPlatformHandler());
+        }
         if (apiMeta.timeout() > 0) {
             // PlatformHandler
-            route.handler(TimeoutHandler.create(apiMeta.timeout(), apiMeta.statusCodeForTimeout()));
+            route.handler(sharedTimeoutHandlers.computeIfAbsent(
+                    new TimeoutKey(apiMeta.timeout(), apiMeta.statusCodeForTimeout()),
+                    key -> new KeelTimeoutHandler(key.timeout(), key.statusCode())
+            ));
+        }
+        if (!preludeMounted) {
+            route.handler(sharedResponseTimeHandler);
+        }
+        if (apiMeta.requestBodyNeeded() && apiMeta.requestBodyMode() == RequestBodyMode.STREAMING) {
+            // PlatformHandler: 尽早暂停请求，直至请求接待类开始读取请求体
+            route.handler(sharedStreamingBodyPreHandlers.computeIfAbsent(
+                    Math.max(apiMeta.requestBodyLimit(), -1L),
+                    StreamingBodyPreHandler::new
+            ));
         }
-        route.handler(ResponseTimeHandler.create());
         this.platformHandlers.forEach(route::handler);
 
         //    SECURITY_POLICY,
@@ -78,7 +134,13 @@ public class PreHandlerChain {
         protocolUpgradeHandlers.forEach(route::handler);
         //    BODY,
         if (apiMeta.requestBodyNeeded()) {
-            route.handler(BodyHandler.create(uploadDirectory));
+            switch (apiMeta.requestBodyMode()) {
+                case BUFFERED -> route.handler(getBodyHandler(-1));
+                case SIZE_CAPPED -> route.handler(getBodyHandler(apiMeta.requestBodyLimit()));
+                case STREAMING -> {
+                    // 请求体由请求接待类以流的形式读取，不安装 BodyHandler
+                }
+            }
         }
         //    MULTI_TENANT,
         multiTenantHandlers.forEach(route::handler);
@@ -96,4 +158,40 @@ public class PreHandlerChain {
             route.failureHandler(failureHandler);
         }
     }
+
+    /**
+     * 在路由器上挂载前导处理器，即各接口路由共用的平台处理器（使用本链的请求 ID 生成器）与响应时间处理器。
+     * <p>
+     * 挂载后，应以{@code preludeMounted}为真调用{@link #executeHandlers(Route, ApiMeta, boolean)}，
+     * 使这些处理器在每个请求中只执行一次，且不再在每个接口路由上重复挂载。
+     * 应在登记各接口路由之前调用。
+     *
+     * @param router 路由器
+     * @since 5.0.2
+     */
+    public final void mountPrelude(Router router) {
+        router.route()
+              .handler(getPlatformHandler())
+              .handler(sharedResponseTimeHandler);
+    }
+
+    private KeelPlatformHandler getPlatformHandler() {
+        if (platformHandler == null) {
+            platformHandler = new KeelPlatformHandler(requestIdGenerator);
+        }
+        return platformHandler;
+    }
+
+    private BodyHandler getBodyHandler(long bodyLimit) {
+        return sharedBodyHandlers.computeIfAbsent(
+                new BodyHandlerKey(uploadDirectory, bodyLimit > 0 ? bodyLimit : -1),
+                key -> BodyHandler.create(key.uploadDirectory()).setBodyLimit(key.bodyLimit())
+        );
+    }
+
+    private record TimeoutKey(long timeout, int statusCode) {
+    }
+
+    private record BodyHandlerKey(String uploadDirectory, long bodyLimit) {
+    }
 }
@@ -0,0 +1,53 @@
+package io.github.sinri.keel.web.http.prehandler;
+
+import io.vertx.core.Future;
+import io.vertx.ext.web.RoutingContext;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * 请求 ID 生成器。
+ * <p>
+ * 供{@link KeelPlatformHandler}为每个请求生成请求 ID。
+ * 能够同步生成的实现应在{@link #generate(RoutingContext)}中直接返回结果，此时平台处理器无需暂停请求；
+ * 只能异步生成的实现（如依赖集群共享计数器）应在{@link #generate(RoutingContext)}中返回{@code null}，
+ * 并实现{@link #generateAsync(RoutingContext)}。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+public interface RequestIdGenerator {
+    /**
+     * @return 默认的节点本地请求 ID 生成器，同步生成，不依赖共享数据
+     */
+    static RequestIdGenerator local() {
+        return LocalRequestIdGenerator.getInstance();
+    }
+
+    /**
+     * @return 基于 Vert.x 共享计数器的请求 ID 生成器；集群模式下每个请求都会产生一次网络往返，需显式选用
+     */
+    static RequestIdGenerator clusterCounter() {
+        return ClusterCounterRequestIdGenerator.getInstance();
+    }
+
+    /**
+     * 同步生成请求 ID。
+     *
+     * @param routingContext 请求上下文
+     * @return 请求 ID；如本实现不支持同步生成则返回{@code null}
+     */
+    @Nullable String generate(RoutingContext routingContext);
+
+    /**
+     * 异步生成请求 ID，仅在{@link #generate(RoutingContext)}返回{@code null}时被调用。
+     *
+     * @param routingContext 请求上下文
+     * @return 异步生成的请求 ID
+     */
+    default Future<String> generateAsync(RoutingContext routingContext) {
+        return Future.succeededFuture(Objects.requireNonNull(generate(routingContext)));
+    }
+}
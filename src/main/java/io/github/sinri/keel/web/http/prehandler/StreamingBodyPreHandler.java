@@ -0,0 +1,53 @@
+package io.github.sinri.keel.web.http.prehandler;
+
+import io.github.sinri.keel.web.http.receptionist.KeelWebBodyStreamReceptionist;
+import io.github.sinri.keel.web.http.receptionist.RequestBodyMode;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.PlatformHandler;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * 流式请求体模式（{@link RequestBodyMode#STREAMING}）下的预处理器。
+ * <p>
+ * 暂停请求，使请求体数据在请求接待类开始读取之前不被丢弃；
+ * 如设置了请求体大小上限，则对声明的 Content-Length 超过上限的请求直接以 413 拒绝，
+ * 并将上限记录在请求上下文中，由{@link KeelWebBodyStreamReceptionist}对实际读取的字节数计数（适用于分块传输等未声明长度的请求）。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+final class StreamingBodyPreHandler implements PlatformHandler {
+    private final long bodyLimit;
+
+    StreamingBodyPreHandler(long bodyLimit) {
+        this.bodyLimit = bodyLimit;
+    }
+
+    @Override
+    public void handle(RoutingContext routingContext) {
+        HttpServerRequest request = routingContext.request();
+        if (bodyLimit > 0) {
+            String contentLength = request.getHeader(HttpHeaders.CONTENT_LENGTH);
+            if (contentLength != null) {
+                long declared;
+                try {
+                    declared = Long.parseLong(contentLength);
+                } catch (NumberFormatException e) {
+                    routingContext.fail(400, e);
+                    return;
+                }
+                if (declared > bodyLimit) {
+                    routingContext.fail(413);
+                    return;
+                }
+            }
+            routingContext.put(KeelWebBodyStreamReceptionist.REQUEST_BODY_LIMIT_KEY, bodyLimit);
+        }
+        if (!request.isEnded()) {
+            request.pause();
+        }
+        routingContext.next();
+    }
+}
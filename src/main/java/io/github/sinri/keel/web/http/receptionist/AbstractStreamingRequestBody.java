@@ -0,0 +1,119 @@
+package io.github.sinri.keel.web.http.receptionist;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.parsetools.JsonParser;
+import io.vertx.core.streams.ReadStream;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * 以流式方式读取内容为 JSON 数组的请求体。
+ * <p>
+ * 与{@link AbstractRequestBody}将整个请求体解析为一个 JSON 对象不同，本类逐个解析顶层数组中的元素并交由
+ * {@link #handleElement(Object)}处理；在上一个元素处理完成前暂停读取，内存占用与单个元素而非整个请求体成正比。
+ * <p>
+ * 对象元素以{@link io.vertx.core.json.JsonObject}的形式提供，标量元素以对应的 Java 类型提供；暂不支持嵌套数组元素。
+ * <p>
+ * 处理失败（元素处理失败、格式不符或解析出错）时，返回的异步结果随即失败，其余请求体被读取并丢弃，
+ * 使请求不会停留在暂停状态，响应得以正常发出。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+abstract public class AbstractStreamingRequestBody {
+    private final ReadStream<Buffer> requestBodyStream;
+
+    public AbstractStreamingRequestBody(ReadStream<Buffer> requestBodyStream) {
+        this.requestBodyStream = requestBodyStream;
+    }
+
+    /**
+     * 处理数组中的一个元素。返回的异步结果完成前不会读取下一个元素。
+     *
+     * @param element 元素
+     * @return 异步处理结果；失败时终止读取
+     */
+    abstract protected Future<Void> handleElement(@Nullable Object element);
+
+    /**
+     * 开始读取并处理请求体，仅可调用一次。
+     *
+     * @return 异步返回已处理的元素个数
+     */
+    public final Future<Long> process() {
+        Promise<Long> promise = Promise.promise();
+        JsonParser parser = JsonParser.newParser(requestBodyStream).objectValueMode();
+        ParsingState state = new ParsingState();
+        parser.exceptionHandler(throwable -> abort(parser, promise, throwable));
+        parser.handler(event -> {
+            if (promise.future().isComplete()) {
+                return;
+            }
+            switch (event.type()) {
+                case START_ARRAY -> {
+                    if (state.arrayStarted) {
+                        abort(parser, promise, new IllegalArgumentException("Nested array elements are not supported"));
+                    } else {
+                        state.arrayStarted = true;
+                    }
+                }
+                case VALUE -> {
+                    if (!state.arrayStarted) {
+                        abort(parser, promise, new IllegalArgumentException("Request body is not a JSON array"));
+                        return;
+                    }
+                    parser.pause();
+                    state.elementPending = true;
+                    Future<Void> future;
+                    try {
+                        future = handleElement(event.value());
+                    } catch (Throwable throwable) {
+                        future = Future.failedFuture(throwable);
+                    }
+                    future.onComplete(ar -> {
+                        state.elementPending = false;
+                        if (ar.failed()) {
+                            abort(parser, promise, ar.cause());
+                            return;
+                        }
+                        state.handledElements++;
+                        if (state.streamEnded) {
+                            promise.tryComplete(state.handledElements);
+                        } else {
+                            parser.resume();
+                        }
+                    });
+                }
+                default -> {
+                    // END_ARRAY 及其他事件无需处理
+                }
+            }
+        });
+        parser.endHandler(v -> {
+            state.streamEnded = true;
+            if (!state.elementPending) {
+                promise.tryComplete(state.handledElements);
+            }
+        });
+        parser.resume();
+        return promise.future();
+    }
+
+    /**
+     * 以失败终止处理，并恢复读取以丢弃其余请求体；此后的解析事件均被忽略。
+     */
+    private static void abort(JsonParser parser, Promise<Long> promise, Throwable cause) {
+        if (promise.tryFail(cause)) {
+            parser.resume();
+        }
+    }
+
+    private static final class ParsingState {
+        boolean arrayStarted = false;
+        boolean elementPending = false;
+        boolean streamEnded = false;
+        long handledElements = 0;
+    }
+}
@@ -26,6 +26,19 @@ public @interface ApiMeta {
 
     boolean requestBodyNeeded() default true;
 
+    /**
+     * @return 请求体处理模式，仅在{@link #requestBodyNeeded()}为真时生效
+     * @since 5.0.2
+     */
+    RequestBodyMode requestBodyMode() default RequestBodyMode.BUFFERED;
+
+    /**
+     * @return 请求体大小上限（字节），用于{@link RequestBodyMode#SIZE_CAPPED}与{@link RequestBodyMode#STREAMING}模式；
+     *         不大于 0 时不限制
+     * @since 5.0.2
+     */
+    long requestBodyLimit() default -1;
+
     /**
      * @return timeout in ms. default is 10s. if 0, no timeout.
      */
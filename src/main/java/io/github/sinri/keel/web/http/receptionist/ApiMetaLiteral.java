@@ -0,0 +1,158 @@
+package io.github.sinri.keel.web.http.receptionist;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * {@link ApiMeta}注解的值对象实现。
+ * <p>
+ * 用于在不读取类上注解的情况下（如由编译期生成的{@link KeelWebReceptionistIndex}）描述一个接口的元信息。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+public final class ApiMetaLiteral implements ApiMeta {
+    private final String virtualHost;
+    private final String routePath;
+    private final String @Nullable [] allowMethods;
+    private final boolean requestBodyNeeded;
+    private final RequestBodyMode requestBodyMode;
+    private final long requestBodyLimit;
+    private final long timeout;
+    private final int statusCodeForTimeout;
+    private final boolean isDeprecated;
+    private final String remark;
+
+    public ApiMetaLiteral(
+            String virtualHost,
+            String routePath,
+            String @Nullable [] allowMethods,
+            boolean requestBodyNeeded,
+            long timeout,
+            int statusCodeForTimeout,
+            boolean isDeprecated,
+            String remark
+    ) {
+        this(virtualHost, routePath, allowMethods, requestBodyNeeded, RequestBodyMode.BUFFERED, -1,
+                timeout, statusCodeForTimeout, isDeprecated, remark);
+    }
+
+    public ApiMetaLiteral(
+            String virtualHost,
+            String routePath,
+            String @Nullable [] allowMethods,
+            boolean requestBodyNeeded,
+            RequestBodyMode requestBodyMode,
+            long requestBodyLimit,
+            long timeout,
+            int statusCodeForTimeout,
+            boolean isDeprecated,
+            String remark
+    ) {
+        this.virtualHost = virtualHost;
+        this.routePath = routePath;
+        this.allowMethods = allowMethods;
+        this.requestBodyNeeded = requestBodyNeeded;
+        this.requestBodyMode = requestBodyMode;
+        this.requestBodyLimit = requestBodyLimit;
+        this.timeout = timeout;
+        this.statusCodeForTimeout = statusCodeForTimeout;
+        this.isDeprecated = isDeprecated;
+        this.remark = remark;
+    }
+
+    @Override
+    public String virtualHost() {
+        return virtualHost;
+    }
+
+    @Override
+    public String routePath() {
+        return routePath;
+    }
+
+    @Override
+    public String @Nullable [] allowMethods() {
+        return allowMethods == null ? null : allowMethods.clone();
+    }
+
+    @Override
+    public boolean requestBodyNeeded() {
+        return requestBodyNeeded;
+    }
+
+    @Override
+    public RequestBodyMode requestBodyMode() {
+        return requestBodyMode;
+    }
+
+    @Override
+    public long requestBodyLimit() {
+        return requestBodyLimit;
+    }
+
+    @Override
+    public long timeout() {
+        return timeout;
+    }
+
+    @Override
+    public int statusCodeForTimeout() {
+        return statusCodeForTimeout;
+    }
+
+    @Override
+    public boolean isDeprecated() {
+        return isDeprecated;
+    }
+
+    @Override
+    public String remark() {
+        return remark;
+    }
+
+    @Override
+    public Class<? extends Annotation> annotationType() {
+        return ApiMeta.class;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ApiMeta that)) return false;
+        return requestBodyNeeded == that.requestBodyNeeded()
+                && requestBodyMode == that.requestBodyMode()
+                && requestBodyLimit == that.requestBodyLimit()
+                && timeout == that.timeout()
+                && statusCodeForTimeout == that.statusCodeForTimeout()
+                && isDeprecated == that.isDeprecated()
+                && virtualHost.equals(that.virtualHost())
+                && routePath.equals(that.routePath())
+                && Arrays.equals(allowMethods, that.allowMethods())
+                && remark.equals(that.remark());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(virtualHost, routePath, Arrays.hashCode(allowMethods), requestBodyNeeded,
+                requestBodyMode, requestBodyLimit, timeout, statusCodeForTimeout, isDeprecated, remark);
+    }
+
+    @Override
+    public String toString() {
+        return "@" + ApiMeta.class.getName() + "(routePath=" + routePath
+                + ", allowMethods=" + Arrays.toString(allowMethods)
+                + ", virtualHost=" + virtualHost
+                + ", requestBodyNeeded=" + requestBodyNeeded
+                + ", requestBodyMode=" + requestBodyMode
+                + ", requestBodyLimit=" + requestBodyLimit
+                + ", timeout=" + timeout
+                + ", statusCodeForTimeout=" + statusCodeForTimeout
+                + ", isDeprecated=" + isDeprecated
+                + ", remark=" + remark + ")";
+    }
+}
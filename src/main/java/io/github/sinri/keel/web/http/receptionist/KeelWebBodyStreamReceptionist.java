@@ -0,0 +1,83 @@
+package io.github.sinri.keel.web.http.receptionist;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.web.RoutingContext;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * 以流的形式读取请求体的请求接待类。
+ * <p>
+ * 应与{@code @ApiMeta(requestBodyMode = RequestBodyMode.STREAMING)}配合使用：
+ * 预处理阶段不安装{@code BodyHandler}，请求被暂停直至本类开始读取，请求体不会在内存中完整缓冲。
+ * 读取时应遵循{@link ReadStream}的背压约定（如使用{@code pipeTo}或{@link AbstractStreamingRequestBody}）。
+ * <p>
+ * 由于没有缓冲的请求体，{@link RoutingContext#body()}不可用。
+ * <p>
+ * 接口元信息设置了请求体大小上限时，除预处理阶段检查声明的 Content-Length 外，还对实际读取的字节数计数；
+ * 超过上限时请求体数据流以 413 错误终止，本类以 413 响应并在响应后关闭连接。
+ *
+ * @param <R> 返回内容的承载类型
+ * @since 5.0.2
+ */
+@NullMarked
+abstract public class KeelWebBodyStreamReceptionist<R> extends KeelWebFutureReceptionist<R> {
+
+    /**
+     * 请求上下文中记录流式请求体大小上限的键，由预处理器写入。
+     *
+     * @since 5.0.2
+     */
+    public static final String REQUEST_BODY_LIMIT_KEY = "keel.web.streaming.body.limit";
+
+    private final ReadStream<Buffer> requestBodyStream;
+    private final @Nullable SizeLimitedRequestBodyStream sizeLimitedRequestBodyStream;
+
+    public KeelWebBodyStreamReceptionist(RoutingContext routingContext) {
+        super(routingContext);
+        Long bodyLimit = routingContext.get(REQUEST_BODY_LIMIT_KEY);
+        if (bodyLimit != null && bodyLimit > 0) {
+            this.sizeLimitedRequestBodyStream = new SizeLimitedRequestBodyStream(routingContext, bodyLimit);
+            this.requestBodyStream = sizeLimitedRequestBodyStream;
+        } else {
+            this.sizeLimitedRequestBodyStream = null;
+            this.requestBodyStream = routingContext.request();
+        }
+    }
+
+    /**
+     * @return 请求体数据流；设置了请求体大小上限时为计数的包装，否则即当前请求本身
+     */
+    protected final ReadStream<Buffer> getRequestBodyStream() {
+        return requestBodyStream;
+    }
+
+    @Override
+    protected final Future<@Nullable R> handleForFuture() {
+        Future<@Nullable R> future = handleRequestBodyStream(getRequestBodyStream());
+        if (sizeLimitedRequestBodyStream == null) {
+            return future;
+        }
+        Promise<@Nullable R> promise = Promise.promise();
+        future.onComplete(ar -> {
+            if (ar.succeeded()) {
+                promise.tryComplete(ar.result());
+            } else {
+                promise.tryFail(ar.cause());
+            }
+        });
+        sizeLimitedRequestBodyStream.limitExceeded().onFailure(promise::tryFail);
+        return promise.future();
+    }
+
+    /**
+     * 主逻辑。请求体数据流处于暂停状态，设置处理器后需调用{@link ReadStream#resume()}或{@link ReadStream#fetch(long)}开始读取。
+     *
+     * @param requestBodyStream 请求体数据流
+     * @return 异步返回的响应内容
+     */
+    abstract protected Future<@Nullable R> handleRequestBodyStream(ReadStream<Buffer> requestBodyStream);
+}
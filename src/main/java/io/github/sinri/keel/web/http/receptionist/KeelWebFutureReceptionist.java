@@ -35,7 +35,9 @@ abstract public class KeelWebFutureReceptionist<R> extends KeelWebReceptionist {
 
     @Override
     public void handle() {
-        getLogger().info(log -> log.message("TO HANDLE REQUEST"));
+        if (!isLightweightLogging()) {
+            getLogger().info(log -> log.message("TO HANDLE REQUEST"));
+        }
 
         Future.succeededFuture()
               .compose(v -> handleForFuture())
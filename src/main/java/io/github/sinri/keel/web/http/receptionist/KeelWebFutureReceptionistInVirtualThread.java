@@ -1,19 +1,41 @@
 package io.github.sinri.keel.web.http.receptionist;
 
 import io.github.sinri.keel.web.http.receptionist.responder.KeelWebApiError;
+import io.github.sinri.keel.web.utils.VirtualThreadExecutorHolder;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.ThreadingModel;
+import io.vertx.core.Vertx;
 import io.vertx.ext.web.RoutingContext;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
 /**
  * 指定使用异步逻辑构成主逻辑的请求接待类，专用于虚拟线程环境下。
+ * <p>
+ * 服务以虚拟线程模型运行时，{@link #handleInVirtualThread()}直接在当前虚拟线程中运行。
+ * 服务以{@code HttpServerThreadingMode.HYBRID}模式运行时，服务在请求上下文中登记了转交标记（见{@link #VIRTUAL_THREAD_CONTEXT_KEY}），
+ * 本类将每个请求的{@link #handleInVirtualThread()}转交到各自的新虚拟线程中运行（见{@link VirtualThreadExecutorHolder}），
+ * 完成后回到原上下文输出结果；一个请求中的阻塞操作因而不会拖慢其他请求。
+ * 此时虚拟线程不属于任何 Vert.x 上下文，{@code Future.await}以阻塞虚拟线程的方式等待，
+ * 在其中发起的异步操作的回调也不在原上下文中运行。
+ * 同一接待类同时转交的请求数不超过{@link #getVirtualThreadConcurrencyLimit()}，超出者排队等候。
  *
  * @param <R> 返回内容的承载类型
  * @since 5.0.0
  */
 @NullMarked
 public abstract class KeelWebFutureReceptionistInVirtualThread<R> extends KeelWebFutureReceptionist<R> {
+    /**
+     * 请求上下文中登记转交标记所用的键：值为{@link Boolean#TRUE}时，表示服务以{@code HttpServerThreadingMode.HYBRID}模式运行，
+     * 请求处理应转交到虚拟线程。
+     *
+     * @since 5.0.2
+     */
+    public static final String VIRTUAL_THREAD_CONTEXT_KEY = "KEEL_VIRTUAL_THREAD_CONTEXT";
+    private static final int DEFAULT_VIRTUAL_THREAD_CONCURRENCY_LIMIT = 256;
+
     public KeelWebFutureReceptionistInVirtualThread(RoutingContext routingContext) {
         super(routingContext);
     }
@@ -27,8 +49,49 @@ public abstract class KeelWebFutureReceptionistInVirtualThread<R> extends KeelWe
      */
     protected abstract @Nullable R handleInVirtualThread() throws KeelWebApiError;
 
+    /**
+     * @return 本接待类同时转交到虚拟线程中处理的请求数上限，以首个请求时的值为准；默认为 256
+     * @since 5.0.2
+     */
+    protected int getVirtualThreadConcurrencyLimit() {
+        return DEFAULT_VIRTUAL_THREAD_CONCURRENCY_LIMIT;
+    }
+
     @Override
     protected final Future<@Nullable R> handleForFuture() {
+        @Nullable Boolean handOff = getRoutingContext().get(VIRTUAL_THREAD_CONTEXT_KEY);
+        Context currentContext = Vertx.currentContext();
+        if (!Boolean.TRUE.equals(handOff) || currentContext == null
+                || currentContext.threadingModel() == ThreadingModel.VIRTUAL_THREAD) {
+            return handleInCurrentThread();
+        }
+
+        Promise<@Nullable R> promise = Promise.promise();
+        VirtualThreadConcurrencyLimiter.forClass(getClass(), getVirtualThreadConcurrencyLimit())
+                                       .submit(() -> {
+                                           Promise<Void> done = Promise.promise();
+                                           try {
+                                               VirtualThreadExecutorHolder.getExecutor().execute(() -> {
+                                                   Future<@Nullable R> result;
+                                                   try {
+                                                       result = handleInCurrentThread();
+                                                   } catch (Throwable throwable) {
+                                                       result = Future.failedFuture(throwable);
+                                                   }
+                                                   done.complete();
+                                                   Future<@Nullable R> finalResult = result;
+                                                   currentContext.runOnContext(v -> promise.handle(finalResult));
+                                               });
+                                           } catch (RuntimeException e) {
+                                               done.complete();
+                                               promise.fail(e);
+                                           }
+                                           return done.future();
+                                       });
+        return promise.future();
+    }
+
+    private Future<@Nullable R> handleInCurrentThread() {
         try {
             R r = handleInVirtualThread();
             return Future.succeededFuture(r);
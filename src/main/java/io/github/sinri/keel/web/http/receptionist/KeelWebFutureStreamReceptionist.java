@@ -0,0 +1,44 @@
+package io.github.sinri.keel.web.http.receptionist;
+
+import io.github.sinri.keel.web.http.receptionist.responder.KeelWebResponder;
+import io.github.sinri.keel.web.http.receptionist.responder.KeelWebStreamingResponder;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.web.RoutingContext;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.concurrent.Flow;
+
+/**
+ * 以数据流作为结果的请求接待类。
+ * <p>
+ * {@link #handleForFuture()}异步返回一个{@link ReadStream}，由{@link KeelWebStreamingResponder}逐个输出其中的元素，
+ * 结果无需在内存中完整构建。结果来源为{@link Flow.Publisher}时，可通过{@link #readStreamOf(Flow.Publisher)}适配。
+ *
+ * @param <T> 结果元素类型
+ * @since 5.0.2
+ */
+@NullMarked
+abstract public class KeelWebFutureStreamReceptionist<T> extends KeelWebFutureReceptionist<ReadStream<T>> {
+
+    public KeelWebFutureStreamReceptionist(RoutingContext routingContext) {
+        super(routingContext);
+    }
+
+    @Override
+    protected KeelWebResponder<ReadStream<T>> buildResponder() {
+        return new KeelWebStreamingResponder<>(getRoutingContext(), this::getLogger, getStreamingFormat());
+    }
+
+    /**
+     * 在构造过程中被调用，不应依赖子类的实例字段。
+     *
+     * @return 流式输出格式，默认为{@link KeelWebStreamingResponder.Format#JSON_ARRAY}
+     */
+    protected KeelWebStreamingResponder.Format getStreamingFormat() {
+        return KeelWebStreamingResponder.Format.JSON_ARRAY;
+    }
+
+    protected final ReadStream<T> readStreamOf(Flow.Publisher<T> publisher) {
+        return KeelWebStreamingResponder.readStreamOf(getVertx().getOrCreateContext(), publisher);
+    }
+}
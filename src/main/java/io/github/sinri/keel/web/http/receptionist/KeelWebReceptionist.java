@@ -17,6 +17,7 @@ import org.jspecify.annotations.Nullable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 请求接待类。
@@ -26,23 +27,14 @@ import java.util.Objects;
 @NullMarked
 public abstract class KeelWebReceptionist {
     private final RoutingContext routingContext;
-    private final SpecificLogger<ReceptionistSpecificLog> logger;
+    private final LateObject<SpecificLogger<ReceptionistSpecificLog>> lateLogger = new LateObject<>();
     private final LateObject<Keel> lateKeel = new LateObject<>();
 
     public KeelWebReceptionist(RoutingContext routingContext) {
         this.routingContext = routingContext;
-        this.logger = LoggerFactory.getShared()
-                                   .createLogger(ReceptionistSpecificLog.TopicReceptionist, () -> new ReceptionistSpecificLog(readRequestID()));
-        if (isVerboseLogging()) {
-            this.logger.visibleLevel(LogLevel.DEBUG);
+        if (!isLightweightLogging()) {
+            getLogger();
         }
-        this.logger.info(r -> r.setRequest(
-                routingContext.request().method(),
-                routingContext.request().path(),
-                this.getClass(),
-                (isVerboseLogging() ? routingContext.request().query() : null),
-                (isVerboseLogging() ? routingContext.body().asString() : null)
-        ));
     }
 
     public static List<String> parseWebClientIPChain(RoutingContext ctx) {
@@ -88,8 +80,59 @@ public abstract class KeelWebReceptionist {
         return false;
     }
 
+    /**
+     * 是否使用轻量日志模式。
+     * <p>
+     * 默认模式下，构造实例时即创建日志记录器并记录一条请求信息日志。
+     * 轻量日志模式下，日志记录器在首次调用{@link #getLogger()}时才创建，且不单独记录请求信息日志，
+     * 而是将请求信息附在第一条实际输出的日志上；如处理过程中没有任何可见级别的日志，则不读取请求信息。
+     *
+     * @return 是否使用轻量日志模式
+     * @since 5.0.2
+     */
+    protected boolean isLightweightLogging() {
+        return false;
+    }
+
     public final SpecificLogger<ReceptionistSpecificLog> getLogger() {
-        return logger;
+        return lateLogger.ensure(() -> {
+            boolean verbose = isVerboseLogging();
+            SpecificLogger<ReceptionistSpecificLog> logger;
+            if (isLightweightLogging()) {
+                // 日志记录仅在其级别可见时才会创建，请求信息随第一条创建的日志一并输出
+                AtomicBoolean requestRecorded = new AtomicBoolean(false);
+                logger = LoggerFactory.getShared().createLogger(ReceptionistSpecificLog.TopicReceptionist, () -> {
+                    ReceptionistSpecificLog log = new ReceptionistSpecificLog(readRequestID());
+                    if (requestRecorded.compareAndSet(false, true)) {
+                        fillRequest(log, verbose);
+                    }
+                    return log;
+                });
+            } else {
+                logger = LoggerFactory.getShared().createLogger(ReceptionistSpecificLog.TopicReceptionist,
+                        () -> new ReceptionistSpecificLog(readRequestID()));
+            }
+            if (verbose) {
+                logger.visibleLevel(LogLevel.DEBUG);
+            }
+            if (!isLightweightLogging()) {
+                logger.info(r -> fillRequest(r, verbose));
+            }
+            return logger;
+        });
+    }
+
+    /**
+     * 记录请求信息；所有内容均在日志实际输出时才自请求上下文中读取。
+     */
+    private ReceptionistSpecificLog fillRequest(ReceptionistSpecificLog log, boolean verbose) {
+        return log.setRequest(
+                routingContext.request().method(),
+                routingContext.request().path(),
+                this.getClass(),
+                (verbose ? routingContext.request().query() : null),
+                (verbose ? routingContext.body().asString() : null)
+        );
     }
 
     /**
@@ -0,0 +1,39 @@
+package io.github.sinri.keel.web.http.receptionist;
+
+import io.github.sinri.keel.web.http.prehandler.PreHandlerChain;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.List;
+
+/**
+ * 请求接待类索引。
+ * <p>
+ * 通常由编译期的注解处理器{@code KeelWebReceptionistIndexProcessor}生成，记录各请求接待类的接口元信息、
+ * 解析好的预处理器链类与实例工厂，供{@link KeelWebReceptionistLoader#loadIndex(io.vertx.ext.web.Router,
+ * KeelWebReceptionistIndex, io.github.sinri.keel.logger.api.logger.Logger)}在启动时直接登记路由，免去类路径扫描。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+public interface KeelWebReceptionistIndex {
+    /**
+     * @return 索引中的全部请求接待类条目
+     */
+    List<Entry> entries();
+
+    /**
+     * 一个请求接待类的索引条目。
+     *
+     * @param receptionistClass    请求接待类
+     * @param apiMetaList          请求接待类上的全部接口元信息
+     * @param preHandlerChainClass 解析得到的预处理器链类
+     * @param factory              请求接待类的实例工厂
+     */
+    record Entry(
+            Class<? extends KeelWebReceptionist> receptionistClass,
+            List<ApiMeta> apiMetaList,
+            Class<? extends PreHandlerChain> preHandlerChainClass,
+            ReceptionistFactory<? extends KeelWebReceptionist> factory
+    ) {
+    }
+}
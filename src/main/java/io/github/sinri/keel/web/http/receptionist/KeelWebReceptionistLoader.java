@@ -8,13 +8,18 @@ import io.vertx.core.http.HttpMethod;
 import io.vertx.core.json.JsonArray;
 import io.vertx.ext.web.Route;
 import io.vertx.ext.web.Router;
-import io.vertx.ext.web.RoutingContext;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
-import java.lang.reflect.Constructor;
+import java.lang.invoke.MethodHandles;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 
@@ -27,10 +32,19 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 @NullMarked
 public final class KeelWebReceptionistLoader {
+    private static final Map<Class<?>, ReceptionistFactory<?>> registeredFactories = new ConcurrentHashMap<>();
+    private static final Map<Module, MethodHandles.Lookup> registeredLookups = new ConcurrentHashMap<>();
+    /**
+     * 各路由器的前导模式状态；路由器被回收后自动移除。
+     */
+    private static final Map<Router, RouterPrelude> routerPreludes = Collections.synchronizedMap(new WeakHashMap<>());
 
     /**
      * 自某个包中加载指定类型的请求接待类，基于各类的接口元信息登记到路由中。
      * <p>
+     * 沿用路由器已确定的前导模式（参见{@link #loadPackage(Router, String, Class, Logger, boolean)}）；
+     * 路由器尚未加载过请求接待类时，不启用路由器级前导模式。
+     * <p>
      * Note: MAIN and TEST scopes are separated.
      *
      * @param router              路由
@@ -43,11 +57,49 @@ public final class KeelWebReceptionistLoader {
             String packageName,
             Class<R> classOfReceptionist,
             Logger logger
+    ) {
+        loadPackage(router, packageName, classOfReceptionist, logger, null);
+    }
+
+    /**
+     * 自某个包中加载指定类型的请求接待类，基于各类的接口元信息登记到路由中。
+     * <p>
+     * 同一预处理器链类的各路由共享同一个预处理器链实例。
+     *
+     * @param router              路由
+     * @param packageName         请求接待类所在的包；扫描时包含其下的子包。
+     * @param classOfReceptionist 具体要通过反射支持的特定的一类请求接待类的基类
+     * @param routerLevelPrelude  是否启用路由器级前导模式：为真时，平台处理器与响应时间处理器仅在路由器上挂载一次（参见
+     *                            {@link PreHandlerChain#mountPrelude(Router)}），不再挂载到每个接口路由上。
+     *                            前导处理器使用首个登记的接口路由所用的预处理器链（包括其请求 ID 生成器），
+     *                            且对路由器上的所有请求生效，包括未匹配任何接口的请求与同一路由器上的其他路由。
+     *                            同一路由器的前导模式由首次加载确定，此后各次加载须保持一致；
+     *                            不一致时记录错误日志并沿用已确定的模式。
+     * @param <R>                 具体要通过反射支持的特定的请求接待类的类型。
+     * @since 5.0.2
+     */
+    public static <R extends KeelWebReceptionist> void loadPackage(
+            Router router,
+            String packageName,
+            Class<R> classOfReceptionist,
+            Logger logger,
+            boolean routerLevelPrelude
+    ) {
+        loadPackage(router, packageName, classOfReceptionist, logger, Boolean.valueOf(routerLevelPrelude));
+    }
+
+    private static <R extends KeelWebReceptionist> void loadPackage(
+            Router router,
+            String packageName,
+            Class<R> classOfReceptionist,
+            Logger logger,
+            @Nullable Boolean routerLevelPrelude
     ) {
         Set<Class<? extends R>> allClasses = ReflectionUtils.seekClassDescendantsInPackage(packageName, classOfReceptionist);
 
         try {
-            allClasses.forEach(c -> loadClass(router, c, logger));
+            LoadingSession session = new LoadingSession(router, logger, routerLevelPrelude);
+            allClasses.forEach(c -> loadClass(session, c));
         } catch (Exception e) {
             logger.error(log -> log
                     .classification(List.of("KeelWebReceptionistLoader", "loadPackage"))
@@ -56,6 +108,35 @@ public final class KeelWebReceptionistLoader {
         }
     }
 
+    /**
+     * 登记一个请求接待类的实例工厂。
+     * <p>
+     * 此后加载该请求接待类时，将直接使用登记的工厂创建实例，不再通过反射生成工厂。
+     * 应在加载请求接待类之前调用。
+     *
+     * @param c       请求接待类
+     * @param factory 实例工厂，例如{@code MyReceptionist::new}
+     * @param <R>     请求接待类的类型
+     * @since 5.0.2
+     */
+    public static <R extends KeelWebReceptionist> void registerFactory(Class<R> c, ReceptionistFactory<? extends R> factory) {
+        registeredFactories.put(c, factory);
+    }
+
+    /**
+     * 登记一个模块提供的查找对象。
+     * <p>
+     * 此后为该模块中的请求接待类生成实例工厂时，使用此查找对象，参见{@link ReceptionistFactory#forClass(Class, MethodHandles.Lookup)}。
+     * 请求接待类位于其他具名模块时，应在该模块中以{@code registerLookup(MethodHandles.lookup())}登记。
+     * 应在加载请求接待类之前调用。
+     *
+     * @param lookup 具备完整权限的查找对象
+     * @since 5.0.2
+     */
+    public static void registerLookup(MethodHandles.Lookup lookup) {
+        registeredLookups.put(lookup.lookupClass().getModule(), lookup);
+    }
+
     /**
      * 加载的请求接待类，基于各类的接口元信息登记到路由中。
      *
@@ -64,14 +145,184 @@ public final class KeelWebReceptionistLoader {
      * @param <R>    具体要通过反射支持的请求接待类的类型。
      */
     public static <R extends KeelWebReceptionist> void loadClass(Router router, Class<? extends R> c, Logger logger) {
+        loadClass(new LoadingSession(router, logger, null), c);
+    }
+
+    private static <R extends KeelWebReceptionist> void loadClass(LoadingSession session, Class<? extends R> c) {
+        ReceptionistFactory<? extends R> factory;
+        try {
+            factory = resolveFactory(c);
+        } catch (NoSuchMethodException e) {
+            session.logger.error(r -> r.classification(List.of("KeelWebReceptionistLoader", "loadClass"))
+                                       .message("HANDLER REFLECTION EXCEPTION")
+                                       .exception(e));
+            return;
+        }
+        loadClass(session, c, factory);
+    }
+
+    /**
+     * 使用给定的实例工厂加载请求接待类，基于其接口元信息登记到路由中。
+     *
+     * @param router  路由
+     * @param c       请求接待类
+     * @param factory 请求接待类的实例工厂
+     * @param <R>     请求接待类的类型
+     * @since 5.0.2
+     */
+    public static <R extends KeelWebReceptionist> void loadClass(
+            Router router,
+            Class<? extends R> c,
+            ReceptionistFactory<? extends R> factory,
+            Logger logger
+    ) {
+        loadClass(new LoadingSession(router, logger, null), c, factory);
+    }
+
+    private static <R extends KeelWebReceptionist> void loadClass(
+            LoadingSession session,
+            Class<? extends R> c,
+            ReceptionistFactory<? extends R> factory
+    ) {
         ApiMeta[] apiMetaArray = ReflectionUtils.getAnnotationsOfClass(c, ApiMeta.class);
+        if (apiMetaArray.length == 0) {
+            return;
+        }
+        PreHandlerChain preHandlerChain = session.getPreHandlerChain(resolvePreHandlerChainClass(c));
+        if (preHandlerChain == null) {
+            return;
+        }
         for (var apiMeta : apiMetaArray) {
-            loadClass(router, c, apiMeta, logger);
+            loadRoute(session, c, apiMeta, preHandlerChain, factory);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R extends KeelWebReceptionist> ReceptionistFactory<? extends R> resolveFactory(Class<? extends R> c) throws NoSuchMethodException {
+        ReceptionistFactory<?> registered = registeredFactories.get(c);
+        if (registered != null) {
+            return (ReceptionistFactory<? extends R>) registered;
+        }
+        return ReceptionistFactory.forClass(c, registeredLookups.get(c.getModule()));
+    }
+
+    /**
+     * 自请求接待类索引加载请求接待类，基于索引中记录的接口元信息登记到路由中。
+     * <p>
+     * 与{@link #loadPackage(Router, String, Class, Logger)}不同，本方法不扫描类路径，也不通过反射读取注解和生成实例工厂。
+     * 沿用路由器已确定的前导模式。
+     *
+     * @param router 路由
+     * @param index  请求接待类索引，通常由注解处理器在编译期生成
+     * @since 5.0.2
+     */
+    public static void loadIndex(Router router, KeelWebReceptionistIndex index, Logger logger) {
+        loadIndex(router, index, logger, null);
+    }
+
+    /**
+     * 自请求接待类索引加载请求接待类，基于索引中记录的接口元信息登记到路由中。
+     *
+     * @param router             路由
+     * @param index              请求接待类索引，通常由注解处理器在编译期生成
+     * @param routerLevelPrelude 是否启用路由器级前导模式，参见
+     *                           {@link #loadPackage(Router, String, Class, Logger, boolean)}
+     * @since 5.0.2
+     */
+    public static void loadIndex(Router router, KeelWebReceptionistIndex index, Logger logger, boolean routerLevelPrelude) {
+        loadIndex(router, index, logger, Boolean.valueOf(routerLevelPrelude));
+    }
+
+    private static void loadIndex(Router router, KeelWebReceptionistIndex index, Logger logger, @Nullable Boolean routerLevelPrelude) {
+        try {
+            LoadingSession session = new LoadingSession(router, logger, routerLevelPrelude);
+            for (var entry : index.entries()) {
+                PreHandlerChain preHandlerChain = session.getPreHandlerChain(entry.preHandlerChainClass());
+                if (preHandlerChain == null) {
+                    continue;
+                }
+                for (var apiMeta : entry.apiMetaList()) {
+                    loadRoute(session, entry.receptionistClass(), apiMeta, preHandlerChain, entry.factory());
+                }
+            }
+        } catch (Exception e) {
+            logger.error(log -> log
+                    .classification(List.of("KeelWebReceptionistLoader", "loadIndex"))
+                    .exception(e)
+            );
         }
     }
 
-    private static <R extends KeelWebReceptionist> void loadClass(Router router, Class<? extends R> c, ApiMeta apiMeta, Logger logger) {
-        logger.info(r -> r
+    /**
+     * 自请求接待类索引加载请求接待类，基于索引中记录的接口元信息登记到路由中。
+     *
+     * @param router         路由
+     * @param indexClassName 请求接待类索引实现类的完整类名，该类须有一个公开的无参构造方法
+     * @since 5.0.2
+     */
+    public static void loadIndex(Router router, String indexClassName, Logger logger) {
+        KeelWebReceptionistIndex index;
+        try {
+            index = (KeelWebReceptionistIndex) Class.forName(indexClassName)
+                                                    .getConstructor()
+                                                    .newInstance();
+        } catch (Throwable e) {
+            logger.error(r -> r.classification(List.of("KeelWebReceptionistLoader", "loadIndex"))
+                               .message("INDEX REFLECTION EXCEPTION")
+                               .exception(e));
+            return;
+        }
+        loadIndex(router, index, logger);
+    }
+
+    /**
+     * 自请求接待类起沿继承链向上查找{@link PreHandlerChainMeta}注解，确定其应使用的预处理器链类。
+     */
+    private static Class<? extends PreHandlerChain> resolvePreHandlerChainClass(Class<?> c) {
+        AtomicReference<Class<?>> classRef = new AtomicReference<>(c);
+
+        while (true) {
+            Class<?> child = classRef.get();
+            //            if (child == null) {
+            //                break;
+            //            }
+            if (child == KeelWebReceptionist.class) {
+                break;
+            }
+            PreHandlerChainMeta annotation = child.getAnnotation(PreHandlerChainMeta.class);
+            if (annotation != null) {
+                return annotation.value();
+            }
+
+            Class<?> superclass = child.getSuperclass();
+            classRef.set(superclass);
+        }
+
+        return PreHandlerChain.class;
+    }
+
+    private static @Nullable PreHandlerChain createPreHandlerChain(Class<? extends PreHandlerChain> preHandlerChainClass, Logger logger) {
+        if (preHandlerChainClass == PreHandlerChain.class) {
+            return new PreHandlerChain();
+        }
+        try {
+            return preHandlerChainClass.getConstructor().newInstance();
+        } catch (Throwable e) {
+            logger.error(r -> r.classification(List.of("KeelWebReceptionistLoader", "loadClass"))
+                               .message("PreHandlerChain REFLECTION EXCEPTION")
+                               .exception(e));
+            return null;
+        }
+    }
+
+    private static <R extends KeelWebReceptionist> void loadRoute(
+            LoadingSession session,
+            Class<? extends R> c,
+            ApiMeta apiMeta,
+            PreHandlerChain preHandlerChain,
+            ReceptionistFactory<? extends R> factory
+    ) {
+        session.logger.info(r -> r
                 .classification(List.of("KeelWebReceptionistLoader", "loadClass"))
                 .message("Loading " + c.getName())
                 .context(j -> {
@@ -91,17 +342,8 @@ public final class KeelWebReceptionistLoader {
                 })
         );
 
-        Constructor<? extends R> receptionistConstructor;
-        try {
-            receptionistConstructor = c.getConstructor(RoutingContext.class);
-        } catch (NoSuchMethodException e) {
-            logger.error(r -> r.classification(List.of("KeelWebReceptionistLoader", "loadClass"))
-                               .message("HANDLER REFLECTION EXCEPTION")
-                               .exception(e));
-            return;
-        }
-
-        Route route = router.route(apiMeta.routePath());
+        boolean preludeMounted = session.ensurePreludeMounted(preHandlerChain);
+        Route route = session.router.route(apiMeta.routePath());
 
         if (apiMeta.allowMethods() != null) {
             for (var methodName : apiMeta.allowMethods()) {
@@ -113,45 +355,12 @@ public final class KeelWebReceptionistLoader {
             route.virtualHost(apiMeta.virtualHost());
         }
 
-        AtomicReference<Class<?>> classRef = new AtomicReference<>(c);
-
-        PreHandlerChain preHandlerChain = null;
-
-        while (true) {
-            Class<?> child = classRef.get();
-            //            if (child == null) {
-            //                break;
-            //            }
-            if (child == KeelWebReceptionist.class) {
-                break;
-            }
-            PreHandlerChainMeta annotation = child.getAnnotation(PreHandlerChainMeta.class);
-            if (annotation != null) {
-                Class<? extends PreHandlerChain> preHandlerChainClass = annotation.value();
-                try {
-                    preHandlerChain = preHandlerChainClass.getConstructor().newInstance();
-                } catch (Throwable e) {
-                    logger.error(r -> r.classification(List.of("KeelWebReceptionistLoader", "loadClass"))
-                                       .message("PreHandlerChain REFLECTION EXCEPTION")
-                                       .exception(e));
-                    return;
-                }
-                break;
-            }
-
-            Class<?> superclass = child.getSuperclass();
-            classRef.set(superclass);
-        }
-
-        if (preHandlerChain == null) {
-            preHandlerChain = new PreHandlerChain();
-        }
-        preHandlerChain.executeHandlers(route, apiMeta);
+        preHandlerChain.executeHandlers(route, apiMeta, preludeMounted);
 
         // finally!
         route.handler(routingContext -> {
             try {
-                R receptionist = receptionistConstructor.newInstance(routingContext);
+                R receptionist = factory.create(routingContext);
                 receptionist.handle();
             } catch (Throwable e) {
                 routingContext.fail(e);
@@ -160,4 +369,69 @@ public final class KeelWebReceptionistLoader {
 
     }
 
+    /**
+     * 一次加载过程中共享的状态：同一预处理器链类只实例化一次，供该次加载的所有路由共用。
+     */
+    private static final class LoadingSession {
+        private final Router router;
+        private final Logger logger;
+        private final RouterPrelude routerPrelude;
+        private final Map<Class<? extends PreHandlerChain>, PreHandlerChain> preHandlerChains = new HashMap<>();
+
+        /**
+         * @param routerLevelPrelude 要求的前导模式；为空时沿用路由器已确定的模式
+         */
+        LoadingSession(Router router, Logger logger, @Nullable Boolean routerLevelPrelude) {
+            this.router = router;
+            this.logger = logger;
+            this.routerPrelude = routerPreludes.computeIfAbsent(router,
+                    r -> new RouterPrelude(routerLevelPrelude != null && routerLevelPrelude));
+            if (routerLevelPrelude != null && routerLevelPrelude != routerPrelude.enabled) {
+                logger.error(r -> r.classification(List.of("KeelWebReceptionistLoader", "routerLevelPrelude"))
+                                   .message("Router already loaded with routerLevelPrelude=" + routerPrelude.enabled
+                                           + ", requested " + routerLevelPrelude + " is ignored"));
+            }
+        }
+
+        /**
+         * 如路由器启用了前导模式，确保前导处理器已挂载（每个路由器仅挂载一次）。
+         *
+         * @return 路由器上是否已挂载前导处理器
+         */
+        boolean ensurePreludeMounted(PreHandlerChain preHandlerChain) {
+            if (!routerPrelude.enabled) {
+                return false;
+            }
+            synchronized (routerPrelude) {
+                if (!routerPrelude.mounted) {
+                    preHandlerChain.mountPrelude(router);
+                    routerPrelude.mounted = true;
+                }
+            }
+            return true;
+        }
+
+        @Nullable PreHandlerChain getPreHandlerChain(Class<? extends PreHandlerChain> preHandlerChainClass) {
+            PreHandlerChain preHandlerChain = preHandlerChains.get(preHandlerChainClass);
+            if (preHandlerChain == null) {
+                preHandlerChain = createPreHandlerChain(preHandlerChainClass, logger);
+                if (preHandlerChain != null) {
+                    preHandlerChains.put(preHandlerChainClass, preHandlerChain);
+                }
+            }
+            return preHandlerChain;
+        }
+    }
+
+    /**
+     * 一个路由器的前导模式：是否启用由首次加载确定，前导处理器在首个接口路由登记前挂载。
+     */
+    private static final class RouterPrelude {
+        private final boolean enabled;
+        private boolean mounted = false;
+
+        RouterPrelude(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
 }
@@ -0,0 +1,98 @@
+package io.github.sinri.keel.web.http.receptionist;
+
+import io.github.sinri.keel.logger.api.factory.LoggerFactory;
+import io.vertx.ext.web.RoutingContext;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+
+/**
+ * {@link ReceptionistFactory}的几种生成方式。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+final class ReceptionistFactories {
+    private static final MethodType FACTORY_METHOD_TYPE = MethodType.methodType(KeelWebReceptionist.class, RoutingContext.class);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(void.class, RoutingContext.class);
+
+    private ReceptionistFactories() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <R extends KeelWebReceptionist> ReceptionistFactory<R> viaLambdaMetafactory(
+            Class<R> receptionistClass,
+            MethodHandles.@Nullable Lookup callerLookup
+    ) throws Throwable {
+        MethodHandles.Lookup lookup;
+        if (callerLookup != null) {
+            lookup = MethodHandles.privateLookupIn(receptionistClass, callerLookup);
+        } else {
+            Module thisModule = ReceptionistFactories.class.getModule();
+            if (!thisModule.canRead(receptionistClass.getModule())) {
+                thisModule.addReads(receptionistClass.getModule());
+            }
+            lookup = MethodHandles.privateLookupIn(receptionistClass, MethodHandles.lookup());
+        }
+        MethodHandle constructorHandle = lookup.findConstructor(receptionistClass, CONSTRUCTOR_TYPE);
+        CallSite callSite = LambdaMetafactory.metafactory(
+                lookup,
+                "create",
+                MethodType.methodType(ReceptionistFactory.class),
+                FACTORY_METHOD_TYPE,
+                constructorHandle,
+                MethodType.methodType(receptionistClass, RoutingContext.class)
+        );
+        return (ReceptionistFactory<R>) callSite.getTarget().invoke();
+    }
+
+    static void logFallback(Class<?> receptionistClass, String fallback, Throwable cause) {
+        LoggerFactory.getShared()
+                     .createLogger("KeelWebReceptionistLoader")
+                     .debug(r -> r.classification(List.of("ReceptionistFactory", "forClass"))
+                                  .message("Falling back to " + fallback + " factory for " + receptionistClass.getName())
+                                  .exception(cause));
+    }
+
+    static <R extends KeelWebReceptionist> ReceptionistFactory<R> viaMethodHandle(Class<R> receptionistClass) throws ReflectiveOperationException {
+        MethodHandle constructorHandle = MethodHandles.publicLookup()
+                                                      .findConstructor(receptionistClass, CONSTRUCTOR_TYPE)
+                                                      .asType(FACTORY_METHOD_TYPE);
+        return routingContext -> {
+            try {
+                return receptionistClass.cast((KeelWebReceptionist) constructorHandle.invokeExact(routingContext));
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    static <R extends KeelWebReceptionist> ReceptionistFactory<R> viaReflection(Constructor<R> constructor) {
+        return routingContext -> {
+            try {
+                return constructor.newInstance(routingContext);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException(cause);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.sinri.keel.web.http.receptionist;
+
+import io.vertx.ext.web.RoutingContext;
+import org.jspecify.annotations.NullMarked;
+
+import org.jspecify.annotations.Nullable;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+
+/**
+ * 请求接待类实例的工厂。
+ * <p>
+ * {@link KeelWebReceptionistLoader}在登记路由时为每个请求接待类确定一个工厂，之后每个请求仅调用工厂方法创建实例。
+ * 应用可以通过{@link KeelWebReceptionistLoader#registerFactory(Class, ReceptionistFactory)}登记自己的工厂（例如
+ * {@code MyReceptionist::new}），以完全绕过反射。
+ *
+ * @param <R> 请求接待类的类型
+ * @since 5.0.2
+ */
+@NullMarked
+@FunctionalInterface
+public interface ReceptionistFactory<R extends KeelWebReceptionist> {
+    /**
+     * 为请求接待类生成工厂。
+     * <p>
+     * 等同于{@code forClass(receptionistClass, null)}。
+     *
+     * @param receptionistClass 请求接待类，须有一个以{@link RoutingContext}为唯一参数的公开构造方法
+     * @param <R>               请求接待类的类型
+     * @return 工厂
+     * @throws NoSuchMethodException 请求接待类缺少所需的构造方法
+     */
+    static <R extends KeelWebReceptionist> ReceptionistFactory<R> forClass(Class<R> receptionistClass) throws NoSuchMethodException {
+        return forClass(receptionistClass, null);
+    }
+
+    /**
+     * 为请求接待类生成工厂。
+     * <p>
+     * 优先通过{@link LambdaMetafactory}在请求接待类所在的包内生成直接调用构造方法的工厂，以便 JIT 内联；
+     * 如请求接待类所在的包未向本模块开放，则退化为基于{@link MethodHandle}的工厂；如仍不可行，则退化为反射调用。
+     * 发生退化时以 DEBUG 级别记录原因。
+     * <p>
+     * 请求接待类位于其他具名模块中时，本模块取得的私有查找对象不具备完整权限，无法生成直接调用的工厂；
+     * 此时可由请求接待类所在模块传入自己的查找对象（即在该模块中调用{@link MethodHandles#lookup()}的结果）。
+     *
+     * @param receptionistClass 请求接待类，须有一个以{@link RoutingContext}为唯一参数的公开构造方法
+     * @param callerLookup      请求接待类所在模块提供的查找对象；为空时使用本模块的查找对象
+     * @param <R>               请求接待类的类型
+     * @return 工厂
+     * @throws NoSuchMethodException 请求接待类缺少所需的构造方法
+     * @since 5.0.2
+     */
+    static <R extends KeelWebReceptionist> ReceptionistFactory<R> forClass(
+            Class<R> receptionistClass,
+            MethodHandles.@Nullable Lookup callerLookup
+    ) throws NoSuchMethodException {
+        Constructor<R> constructor = receptionistClass.getConstructor(RoutingContext.class);
+        try {
+            return ReceptionistFactories.viaLambdaMetafactory(receptionistClass, callerLookup);
+        } catch (Throwable e) {
+            ReceptionistFactories.logFallback(receptionistClass, "MethodHandle", e);
+        }
+        try {
+            return ReceptionistFactories.viaMethodHandle(receptionistClass);
+        } catch (Throwable e) {
+            ReceptionistFactories.logFallback(receptionistClass, "Reflection", e);
+        }
+        return ReceptionistFactories.viaReflection(constructor);
+    }
+
+    /**
+     * 为一个请求创建请求接待类实例。
+     *
+     * @param routingContext 请求上下文
+     * @return 请求接待类实例
+     */
+    R create(RoutingContext routingContext);
+}
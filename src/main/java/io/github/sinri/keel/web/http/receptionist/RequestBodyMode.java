@@ -0,0 +1,28 @@
+package io.github.sinri.keel.web.http.receptionist;
+
+import io.github.sinri.keel.web.http.prehandler.PreHandlerChain;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * 请求体处理模式，在{@link ApiMeta#requestBodyNeeded()}为真时由{@link PreHandlerChain}据此安装相应的处理器。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+public enum RequestBodyMode {
+    /**
+     * 由{@code BodyHandler}将完整请求体缓冲在内存中，不限制大小。
+     */
+    BUFFERED,
+    /**
+     * 由{@code BodyHandler}将完整请求体缓冲在内存中，超过{@link ApiMeta#requestBodyLimit()}时以 413 拒绝。
+     */
+    SIZE_CAPPED,
+    /**
+     * 不缓冲请求体；请求在预处理阶段被暂停，由请求接待类以{@code ReadStream<Buffer>}的形式按需读取，支持背压。
+     * 如设置了{@link ApiMeta#requestBodyLimit()}，则声明的 Content-Length 超过上限时以 413 拒绝。
+     *
+     * @see KeelWebBodyStreamReceptionist
+     */
+    STREAMING
+}
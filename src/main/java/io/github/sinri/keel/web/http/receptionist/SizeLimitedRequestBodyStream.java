@@ -0,0 +1,119 @@
+package io.github.sinri.keel.web.http.receptionist;
+
+import io.github.sinri.keel.web.http.receptionist.responder.KeelWebApiError;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.web.RoutingContext;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * 对实际读取的请求体字节数计数的请求体数据流。
+ * <p>
+ * 读取的字节数超过上限时，不再向下游传递数据并保持请求暂停，以 413 错误通知下游与{@link #limitExceeded()}；
+ * 响应结束后关闭连接（HTTP/2 下重置该流），丢弃其余未读取的请求体。
+ * 用于没有声明 Content-Length 的请求（如分块传输），声明了的请求已在预处理阶段检查。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+final class SizeLimitedRequestBodyStream implements ReadStream<Buffer> {
+    private final RoutingContext routingContext;
+    private final HttpServerRequest request;
+    private final long bodyLimit;
+    private final Promise<Void> limitExceededPromise = Promise.promise();
+    private long bytesRead = 0;
+    private boolean exceeded = false;
+    private @Nullable Handler<Throwable> exceptionHandler;
+
+    SizeLimitedRequestBodyStream(RoutingContext routingContext, long bodyLimit) {
+        this.routingContext = routingContext;
+        this.request = routingContext.request();
+        this.bodyLimit = bodyLimit;
+    }
+
+    /**
+     * @return 读取的字节数超过上限时以 413 错误失败；否则不会完成
+     */
+    Future<Void> limitExceeded() {
+        return limitExceededPromise.future();
+    }
+
+    @Override
+    public ReadStream<Buffer> exceptionHandler(@Nullable Handler<Throwable> handler) {
+        this.exceptionHandler = handler;
+        request.exceptionHandler(handler);
+        return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> handler(@Nullable Handler<Buffer> handler) {
+        if (handler == null) {
+            request.handler(null);
+            return this;
+        }
+        request.handler(buffer -> {
+            if (exceeded) {
+                return;
+            }
+            bytesRead += buffer.length();
+            if (bytesRead > bodyLimit) {
+                exceed();
+                return;
+            }
+            handler.handle(buffer);
+        });
+        return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> pause() {
+        request.pause();
+        return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> resume() {
+        if (!exceeded) {
+            request.resume();
+        }
+        return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> fetch(long amount) {
+        if (!exceeded) {
+            request.fetch(amount);
+        }
+        return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> endHandler(@Nullable Handler<Void> endHandler) {
+        request.endHandler(endHandler);
+        return this;
+    }
+
+    private void exceed() {
+        exceeded = true;
+        request.pause();
+        routingContext.addEndHandler(ar -> {
+            if (request.version() == HttpVersion.HTTP_2) {
+                routingContext.response().reset();
+            } else {
+                request.connection().close();
+            }
+        });
+        KeelWebApiError error = new KeelWebApiError(413, "Request body exceeds the limit of " + bodyLimit + " bytes", null);
+        limitExceededPromise.tryFail(error);
+        Handler<Throwable> handler = exceptionHandler;
+        if (handler != null) {
+            handler.handle(error);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.sinri.keel.web.http.receptionist;
+
+import io.vertx.core.Future;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 限制同一接待类被转交到虚拟线程中并发处理的请求数；超出上限的请求按到达顺序排队，待前序请求完成后开始。
+ * 每个接待类一个实例，可被多个事件循环并发使用。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+final class VirtualThreadConcurrencyLimiter {
+    private static final Map<Class<?>, VirtualThreadConcurrencyLimiter> LIMITERS = new ConcurrentHashMap<>();
+
+    private final int limit;
+    private final ArrayDeque<Runnable> waiting = new ArrayDeque<>();
+    private int running = 0;
+
+    private VirtualThreadConcurrencyLimiter(int limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * @param receptionistClass 接待类
+     * @param limit             并发上限，以该类首次调用时的值为准
+     */
+    static VirtualThreadConcurrencyLimiter forClass(Class<?> receptionistClass, int limit) {
+        return LIMITERS.computeIfAbsent(receptionistClass, c -> new VirtualThreadConcurrencyLimiter(Math.max(1, limit)));
+    }
+
+    void submit(Supplier<Future<Void>> task) {
+        Runnable runnable = () -> {
+            Future<Void> future;
+            try {
+                future = task.get();
+            } catch (Throwable throwable) {
+                future = Future.failedFuture(throwable);
+            }
+            future.onComplete(ar -> release());
+        };
+        synchronized (this) {
+            if (running >= limit) {
+                waiting.addLast(runnable);
+                return;
+            }
+            running++;
+        }
+        runnable.run();
+    }
+
+    private void release() {
+        Runnable next;
+        synchronized (this) {
+            next = waiting.pollFirst();
+            if (next == null) {
+                running--;
+                return;
+            }
+        }
+        next.run();
+    }
+
+    synchronized int getRunning() {
+        return running;
+    }
+
+    synchronized int getWaiting() {
+        return waiting.size();
+    }
+}
@@ -0,0 +1,339 @@
+package io.github.sinri.keel.web.http.receptionist.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 请求接待类索引的注解处理器。
+ * <p>
+ * 在编译期收集所有标注了{@code ApiMeta}（或其容器注解）的请求接待类，生成一个
+ * {@code KeelWebReceptionistIndex}实现类，记录各类的接口元信息、沿继承链解析得到的预处理器链类以及构造方法引用。
+ * 运行时通过{@code KeelWebReceptionistLoader.loadIndex}加载该索引即可登记路由，无需扫描类路径。
+ * <p>
+ * 生成类的完整类名可通过处理器选项{@value #OPTION_INDEX_CLASS}指定；
+ * 未指定时，生成在所有请求接待类的公共包中，类名为{@value #DEFAULT_INDEX_SIMPLE_NAME}。
+ * <p>
+ * 本处理器不随主构件自动注册，须显式启用，例如在 Gradle 中声明
+ * {@code annotationProcessor("io.github.sinri:keel-web:<version>:processor")}，
+ * 或通过{@code javac -processor}指定本类。
+ * <p>
+ * 索引在发现请求接待类的首个处理轮次中生成，以便生成的源文件仍参与后续轮次的处理；
+ * 此后轮次中才出现的请求接待类（即由其他处理器生成的类）不再收入索引，仅给出警告。
+ * 不满足索引条件的类（非公开、缺少构造方法等）同样仅给出警告并跳过，运行时仍可通过类路径扫描加载。
+ *
+ * @since 5.0.2
+ */
+@SupportedOptions(KeelWebReceptionistIndexProcessor.OPTION_INDEX_CLASS)
+public class KeelWebReceptionistIndexProcessor extends AbstractProcessor {
+    public static final String OPTION_INDEX_CLASS = "keel.web.receptionistIndex";
+    public static final String DEFAULT_INDEX_SIMPLE_NAME = "KeelWebReceptionistIndexImpl";
+
+    private static final String PACKAGE_RECEPTIONIST = "io.github.sinri.keel.web.http.receptionist";
+    private static final String PACKAGE_PRE_HANDLER = "io.github.sinri.keel.web.http.prehandler";
+    private static final String API_META = PACKAGE_RECEPTIONIST + ".ApiMeta";
+    private static final String API_META_CONTAINER = PACKAGE_RECEPTIONIST + ".ApiMetaContainer";
+    private static final String KEEL_WEB_RECEPTIONIST = PACKAGE_RECEPTIONIST + ".KeelWebReceptionist";
+    private static final String PRE_HANDLER_CHAIN = PACKAGE_PRE_HANDLER + ".PreHandlerChain";
+    private static final String PRE_HANDLER_CHAIN_META = PACKAGE_PRE_HANDLER + ".PreHandlerChainMeta";
+    private static final String ROUTING_CONTEXT = "io.vertx.ext.web.RoutingContext";
+    /**
+     * 每个生成方法中登记的条目数上限，避免单个方法超出 64KB 字节码限制。
+     */
+    private static final int ENTRIES_PER_METHOD = 100;
+
+    private final Map<String, TypeElement> receptionists = new TreeMap<>();
+    private boolean indexWritten = false;
+    private Elements elements;
+    private Types types;
+    private Messager messager;
+    private Filer filer;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.messager = processingEnv.getMessager();
+        this.filer = processingEnv.getFiler();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(API_META, API_META_CONTAINER);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            return false;
+        }
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                collect(element);
+            }
+        }
+        if (!indexWritten && !receptionists.isEmpty()) {
+            indexWritten = true;
+            try {
+                writeIndex();
+            } catch (IOException e) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Failed to write receptionist index: " + e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    private void collect(Element element) {
+        if (element.getKind() != ElementKind.CLASS) {
+            return;
+        }
+        TypeElement typeElement = (TypeElement) element;
+        Set<Modifier> modifiers = typeElement.getModifiers();
+        if (modifiers.contains(Modifier.ABSTRACT)) {
+            return;
+        }
+        if (!modifiers.contains(Modifier.PUBLIC)
+                || (typeElement.getNestingKind() != NestingKind.TOP_LEVEL && !modifiers.contains(Modifier.STATIC))) {
+            messager.printMessage(Diagnostic.Kind.WARNING,
+                    "Receptionist class is not public and top-level or static nested; not indexed", typeElement);
+            return;
+        }
+        TypeElement receptionistBase = elements.getTypeElement(KEEL_WEB_RECEPTIONIST);
+        if (receptionistBase == null || !types.isSubtype(typeElement.asType(), types.erasure(receptionistBase.asType()))) {
+            messager.printMessage(Diagnostic.Kind.WARNING,
+                    "Class annotated with ApiMeta does not extend " + KEEL_WEB_RECEPTIONIST + "; not indexed", typeElement);
+            return;
+        }
+        if (!hasRoutingContextConstructor(typeElement)) {
+            messager.printMessage(Diagnostic.Kind.WARNING,
+                    "Receptionist class declares no public constructor taking only " + ROUTING_CONTEXT + "; not indexed", typeElement);
+            return;
+        }
+        if (indexWritten) {
+            messager.printMessage(Diagnostic.Kind.WARNING,
+                    "Receptionist class appeared after the index was generated; not indexed", typeElement);
+            return;
+        }
+        receptionists.put(typeElement.getQualifiedName().toString(), typeElement);
+    }
+
+    private boolean hasRoutingContextConstructor(TypeElement typeElement) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(typeElement.getEnclosedElements())) {
+            if (!constructor.getModifiers().contains(Modifier.PUBLIC) || constructor.getParameters().size() != 1) {
+                continue;
+            }
+            TypeMirror parameterType = types.erasure(constructor.getParameters().get(0).asType());
+            if (parameterType.toString().equals(ROUTING_CONTEXT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<AnnotationMirror> readApiMetaMirrors(TypeElement typeElement) {
+        List<AnnotationMirror> list = new ArrayList<>();
+        for (AnnotationMirror mirror : typeElement.getAnnotationMirrors()) {
+            String name = annotationName(mirror);
+            if (API_META.equals(name)) {
+                list.add(mirror);
+            } else if (API_META_CONTAINER.equals(name)) {
+                AnnotationValue value = readValues(mirror).get("value");
+                if (value != null) {
+                    for (Object item : (List<?>) value.getValue()) {
+                        list.add((AnnotationMirror) ((AnnotationValue) item).getValue());
+                    }
+                }
+            }
+        }
+        return list;
+    }
+
+    private String resolvePreHandlerChainClass(TypeElement typeElement) {
+        TypeElement current = typeElement;
+        while (current != null && !current.getQualifiedName().contentEquals(KEEL_WEB_RECEPTIONIST)) {
+            for (AnnotationMirror mirror : current.getAnnotationMirrors()) {
+                if (PRE_HANDLER_CHAIN_META.equals(annotationName(mirror))) {
+                    AnnotationValue value = readValues(mirror).get("value");
+                    if (value != null) {
+                        TypeMirror chainType = (TypeMirror) value.getValue();
+                        return ((TypeElement) types.asElement(chainType)).getQualifiedName().toString();
+                    }
+                }
+            }
+            TypeMirror superclass = current.getSuperclass();
+            if (superclass.getKind() != TypeKind.DECLARED) {
+                break;
+            }
+            current = (TypeElement) ((DeclaredType) superclass).asElement();
+        }
+        return PRE_HANDLER_CHAIN;
+    }
+
+    private void writeIndex() throws IOException {
+        String indexClassName = processingEnv.getOptions().get(OPTION_INDEX_CLASS);
+        if (indexClassName == null || indexClassName.isBlank()) {
+            String commonPackage = commonPackage();
+            indexClassName = commonPackage.isEmpty()
+                    ? DEFAULT_INDEX_SIMPLE_NAME
+                    : commonPackage + "." + DEFAULT_INDEX_SIMPLE_NAME;
+        }
+        int lastDot = indexClassName.lastIndexOf('.');
+        String packageName = lastDot < 0 ? "" : indexClassName.substring(0, lastDot);
+        String simpleName = indexClassName.substring(lastDot + 1);
+
+        List<String> entryExpressions = new ArrayList<>();
+        for (TypeElement typeElement : receptionists.values()) {
+            entryExpressions.add(buildEntryExpression(typeElement));
+        }
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import ").append(PACKAGE_RECEPTIONIST).append(".ApiMetaLiteral;\n")
+              .append("import ").append(PACKAGE_RECEPTIONIST).append(".KeelWebReceptionistIndex;\n\n")
+              .append("import java.util.ArrayList;\n")
+              .append("import java.util.Collections;\n")
+              .append("import java.util.List;\n\n")
+              .append("/**\n")
+              .append(" * Generated by ").append(getClass().getName()).append(". Do not edit.\n")
+              .append(" */\n")
+              .append("public final class ").append(simpleName).append(" implements KeelWebReceptionistIndex {\n")
+              .append("    private static final List<Entry> ENTRIES;\n\n")
+              .append("    static {\n")
+              .append("        List<Entry> list = new ArrayList<>(").append(entryExpressions.size()).append(");\n");
+        int methodCount = (entryExpressions.size() + ENTRIES_PER_METHOD - 1) / ENTRIES_PER_METHOD;
+        for (int i = 0; i < methodCount; i++) {
+            source.append("        register").append(i).append("(list);\n");
+        }
+        source.append("        ENTRIES = Collections.unmodifiableList(list);\n")
+              .append("    }\n\n")
+              .append("    public ").append(simpleName).append("() {\n")
+              .append("    }\n");
+        for (int i = 0; i < methodCount; i++) {
+            source.append("\n    private static void register").append(i).append("(List<Entry> list) {\n");
+            int end = Math.min(entryExpressions.size(), (i + 1) * ENTRIES_PER_METHOD);
+            for (int j = i * ENTRIES_PER_METHOD; j < end; j++) {
+                source.append("        list.add(").append(entryExpressions.get(j)).append(");\n");
+            }
+            source.append("    }\n");
+        }
+        source.append("\n    @Override\n")
+              .append("    public List<Entry> entries() {\n")
+              .append("        return ENTRIES;\n")
+              .append("    }\n")
+              .append("}\n");
+
+        Element[] originatingElements = receptionists.values().toArray(new Element[0]);
+        try (Writer writer = filer.createSourceFile(indexClassName, originatingElements).openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    private String buildEntryExpression(TypeElement typeElement) {
+        String className = typeElement.getQualifiedName().toString();
+        StringBuilder apiMetaList = new StringBuilder("List.of(");
+        List<AnnotationMirror> mirrors = readApiMetaMirrors(typeElement);
+        for (int i = 0; i < mirrors.size(); i++) {
+            if (i > 0) apiMetaList.append(", ");
+            apiMetaList.append(buildApiMetaExpression(mirrors.get(i)));
+        }
+        apiMetaList.append(")");
+        return "new Entry(" + className + ".class, "
+                + apiMetaList + ", "
+                + resolvePreHandlerChainClass(typeElement) + ".class, "
+                + className + "::new)";
+    }
+
+    private String buildApiMetaExpression(AnnotationMirror mirror) {
+        Map<String, AnnotationValue> values = readValues(mirror);
+        StringBuilder allowMethods = new StringBuilder("new String[]{");
+        List<?> methods = (List<?>) values.get("allowMethods").getValue();
+        for (int i = 0; i < methods.size(); i++) {
+            if (i > 0) allowMethods.append(", ");
+            allowMethods.append(elements.getConstantExpression(((AnnotationValue) methods.get(i)).getValue()));
+        }
+        allowMethods.append("}");
+        return "new ApiMetaLiteral("
+                + constant(values, "virtualHost") + ", "
+                + constant(values, "routePath") + ", "
+                + allowMethods + ", "
+                + constant(values, "requestBodyNeeded") + ", "
+                + enumConstant(values, "requestBodyMode") + ", "
+                + constant(values, "requestBodyLimit") + ", "
+                + constant(values, "timeout") + ", "
+                + constant(values, "statusCodeForTimeout") + ", "
+                + constant(values, "isDeprecated") + ", "
+                + constant(values, "remark") + ")";
+    }
+
+    private String constant(Map<String, AnnotationValue> values, String name) {
+        return elements.getConstantExpression(values.get(name).getValue());
+    }
+
+    private String enumConstant(Map<String, AnnotationValue> values, String name) {
+        VariableElement constant = (VariableElement) values.get(name).getValue();
+        TypeElement enumType = (TypeElement) constant.getEnclosingElement();
+        return enumType.getQualifiedName() + "." + constant.getSimpleName();
+    }
+
+    private Map<String, AnnotationValue> readValues(AnnotationMirror mirror) {
+        Map<String, AnnotationValue> map = new TreeMap<>();
+        elements.getElementValuesWithDefaults(mirror)
+                .forEach((key, value) -> map.put(key.getSimpleName().toString(), value));
+        return map;
+    }
+
+    private String annotationName(AnnotationMirror mirror) {
+        return ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    private String commonPackage() {
+        String common = null;
+        for (TypeElement typeElement : receptionists.values()) {
+            String packageName = elements.getPackageOf(typeElement).getQualifiedName().toString();
+            if (common == null) {
+                common = packageName;
+                continue;
+            }
+            while (!common.isEmpty() && !(packageName.equals(common) || packageName.startsWith(common + "."))) {
+                int lastDot = common.lastIndexOf('.');
+                common = lastDot < 0 ? "" : common.substring(0, lastDot);
+            }
+        }
+        return common == null ? "" : common;
+    }
+}
@@ -0,0 +1 @@
+package io.github.sinri.keel.web.http.receptionist.processor;
@@ -9,6 +9,7 @@ import org.jspecify.annotations.NullMarked;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 import static io.github.sinri.keel.web.http.receptionist.KeelWebReceptionist.parseWebClientIPChain;
 
@@ -20,7 +21,7 @@ import static io.github.sinri.keel.web.http.receptionist.KeelWebReceptionist.par
 @NullMarked
 public abstract class AbstractKeelWebResponder<R> implements KeelWebResponder<R> {
     private final RoutingContext routingContext;
-    private final SpecificLogger<ReceptionistSpecificLog> logger;
+    private final Supplier<SpecificLogger<ReceptionistSpecificLog>> loggerSupplier;
 
     /**
      * Constructs an AbstractKeelWebResponder instance with the given routing context and issue recorder.
@@ -30,8 +31,21 @@ public abstract class AbstractKeelWebResponder<R> implements KeelWebResponder<R>
      *                       not be null
      */
     public AbstractKeelWebResponder(RoutingContext routingContext, SpecificLogger<ReceptionistSpecificLog> logger) {
+        this(routingContext, () -> logger);
+    }
+
+    /**
+     * Constructs an AbstractKeelWebResponder instance whose logger is obtained on demand,
+     * so that no logger is created for requests that never log anything.
+     *
+     * @param routingContext the routing context associated with the request, must not be null
+     * @param loggerSupplier the supplier of the logger, called each time the logger is needed; it should memoize
+     *                       the logger, as {@code KeelWebReceptionist#getLogger()} does
+     * @since 5.0.2
+     */
+    public AbstractKeelWebResponder(RoutingContext routingContext, Supplier<SpecificLogger<ReceptionistSpecificLog>> loggerSupplier) {
         this.routingContext = routingContext;
-        this.logger = logger;
+        this.loggerSupplier = loggerSupplier;
     }
 
     /**
@@ -51,7 +65,7 @@ public abstract class AbstractKeelWebResponder<R> implements KeelWebResponder<R>
      *         never null
      */
     public SpecificLogger<ReceptionistSpecificLog> getLogger() {
-        return logger;
+        return loggerSupplier.get();
     }
 
     /**
@@ -0,0 +1,180 @@
+package io.github.sinri.keel.web.http.receptionist.responder;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.streams.ReadStream;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Flow;
+
+/**
+ * 将{@link Flow.Publisher}适配为{@link ReadStream}。
+ * <p>
+ * 发布者的各信号可能来自任意线程，统一切换到给定的 Vert.x 上下文中处理，状态仅在该上下文中读写。
+ * 每次向上游请求{@code batchSize}个元素，仅在已请求的元素全部到达、本地缓冲为空且下游仍有需求时才发起下一次请求，
+ * 因此下游暂停时，本地缓冲的元素数不超过{@code batchSize}。
+ * <p>
+ * 元素处理器被设为{@code null}时取消订阅并丢弃缓冲的元素；此时订阅尚未建立的，在建立时立即取消。
+ *
+ * @param <T> 元素类型
+ * @since 5.0.2
+ */
+@NullMarked
+final class FlowPublisherReadStream<T> implements ReadStream<T>, Flow.Subscriber<T> {
+    private final Context context;
+    private final Flow.Publisher<T> publisher;
+    private final int batchSize;
+    private final ArrayDeque<T> buffered = new ArrayDeque<>();
+    private @Nullable Flow.Subscription subscription;
+    private @Nullable Handler<T> handler;
+    private @Nullable Handler<Throwable> exceptionHandler;
+    private @Nullable Handler<Void> endHandler;
+    private long demand = Long.MAX_VALUE;
+    private long outstanding = 0;
+    private boolean subscribed = false;
+    private boolean completed = false;
+    private boolean terminated = false;
+    private boolean cancelled = false;
+    private @Nullable Throwable failure;
+
+    FlowPublisherReadStream(Context context, Flow.Publisher<T> publisher, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.context = context;
+        this.publisher = publisher;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public ReadStream<T> exceptionHandler(@Nullable Handler<Throwable> handler) {
+        this.exceptionHandler = handler;
+        return this;
+    }
+
+    @Override
+    public ReadStream<T> handler(@Nullable Handler<T> handler) {
+        this.handler = handler;
+        if (handler == null) {
+            if (subscribed && !cancelled && !completed) {
+                cancelled = true;
+                buffered.clear();
+                if (subscription != null) {
+                    subscription.cancel();
+                }
+            }
+        } else if (!subscribed) {
+            subscribed = true;
+            publisher.subscribe(this);
+        }
+        return this;
+    }
+
+    @Override
+    public ReadStream<T> pause() {
+        demand = 0;
+        return this;
+    }
+
+    @Override
+    public ReadStream<T> resume() {
+        return fetch(Long.MAX_VALUE);
+    }
+
+    @Override
+    public ReadStream<T> fetch(long amount) {
+        if (amount > 0) {
+            demand = (Long.MAX_VALUE - demand < amount) ? Long.MAX_VALUE : demand + amount;
+            context.runOnContext(v -> drain());
+        }
+        return this;
+    }
+
+    @Override
+    public ReadStream<T> endHandler(@Nullable Handler<Void> endHandler) {
+        this.endHandler = endHandler;
+        return this;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        context.runOnContext(v -> {
+            this.subscription = subscription;
+            if (cancelled) {
+                subscription.cancel();
+                return;
+            }
+            requestMore();
+        });
+    }
+
+    @Override
+    public void onNext(T item) {
+        context.runOnContext(v -> {
+            if (cancelled) {
+                return;
+            }
+            outstanding--;
+            buffered.add(item);
+            drain();
+        });
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        context.runOnContext(v -> {
+            completed = true;
+            failure = throwable;
+            drain();
+        });
+    }
+
+    @Override
+    public void onComplete() {
+        context.runOnContext(v -> {
+            completed = true;
+            drain();
+        });
+    }
+
+    private void drain() {
+        while (demand > 0 && !buffered.isEmpty()) {
+            if (demand != Long.MAX_VALUE) {
+                demand--;
+            }
+            T item = buffered.poll();
+            Handler<T> h = handler;
+            if (h != null) {
+                h.handle(item);
+            }
+        }
+        if (buffered.isEmpty() && completed) {
+            if (!terminated) {
+                terminated = true;
+                if (failure != null) {
+                    Handler<Throwable> h = exceptionHandler;
+                    if (h != null) {
+                        h.handle(failure);
+                    }
+                } else {
+                    Handler<Void> h = endHandler;
+                    if (h != null) {
+                        h.handle(null);
+                    }
+                }
+            }
+            return;
+        }
+        requestMore();
+    }
+
+    private void requestMore() {
+        if (subscription != null && !completed && handler != null
+                && demand > 0 && outstanding == 0 && buffered.isEmpty()) {
+            outstanding = batchSize;
+            subscription.request(batchSize);
+        }
+    }
+}
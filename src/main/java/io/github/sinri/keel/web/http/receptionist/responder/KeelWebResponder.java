@@ -8,6 +8,8 @@ import io.vertx.ext.web.RoutingContext;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
+import java.util.function.Supplier;
+
 
 /**
  * Web 请求响应器。
@@ -23,6 +25,17 @@ public interface KeelWebResponder<R> {
         return new KeelWebResponderCommonApiImpl(routingContext, issueRecorder);
     }
 
+    /**
+     * 创建通用响应器，日志记录器仅在需要时通过{@code loggerSupplier}获取。
+     * <p>
+     * 适用于轻量日志模式的请求接待类，例如{@code KeelWebResponder.createCommonInstance(getRoutingContext(), this::getLogger)}。
+     *
+     * @since 5.0.2
+     */
+    static KeelWebResponder<JsonObject> createCommonInstance(RoutingContext routingContext, Supplier<SpecificLogger<ReceptionistSpecificLog>> loggerSupplier) {
+        return new KeelWebResponderCommonApiImpl(routingContext, loggerSupplier);
+    }
+
     void respondOnSuccess(@Nullable R data);
 
     void respondOnFailure(KeelWebApiError webApiError, @Nullable ValueBox<?> dataValueBox);
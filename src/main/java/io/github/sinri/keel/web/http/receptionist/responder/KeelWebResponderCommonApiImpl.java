@@ -3,14 +3,18 @@ package io.github.sinri.keel.web.http.receptionist.responder;
 import io.github.sinri.keel.base.json.JsonifiedThrowable;
 import io.github.sinri.keel.core.utils.value.ValueBox;
 import io.github.sinri.keel.logger.api.logger.SpecificLogger;
+import io.github.sinri.keel.web.http.KeelHttpCompressionConfig;
 import io.github.sinri.keel.web.http.receptionist.ReceptionistSpecificLog;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.json.Json;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RoutingContext;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
 import java.util.Objects;
+import java.util.function.Supplier;
 
 
 /**
@@ -19,25 +23,38 @@ import java.util.Objects;
  * 无论处理过程是否发生错误，返回格式为 JSON 对象。<br>
  * 当处理过程正常返回结果时，返回{@code {"code":"OK","data":{...}}};<br>
  * 否则，返回{@code {"code":"FAILED","data":{...}}}。
+ * <p>
+ * 正常返回时，响应体直接写入{@link Buffer}：信封中不变的部分预先编码为字节，请求 ID 与返回内容各序列化一次，
+ * 不经过包装用的{@link JsonObject}与中间字符串；输出与{@link #buildResponseBody(Code, JsonObject)}编码的结果逐字节一致。
+ * 响应预先写明{@code Content-Length}，服务启用响应压缩时据此按{@link KeelHttpCompressionConfig}判断是否压缩，较小的信封不压缩。
  *
  * @since 5.0.0
  */
 @NullMarked
 class KeelWebResponderCommonApiImpl extends AbstractKeelWebResponder<JsonObject> {
+    private static final Buffer ENVELOPE_PREFIX = Buffer.buffer("{\"request_id\":");
+    private static final Buffer ENVELOPE_OK_INFIX = Buffer.buffer(",\"code\":\"OK\",\"data\":");
+    private static final Buffer JSON_NULL = Buffer.buffer("null");
+    private static final byte ENVELOPE_SUFFIX = '}';
 
     public KeelWebResponderCommonApiImpl(RoutingContext routingContext, SpecificLogger<ReceptionistSpecificLog> issueRecorder) {
         super(routingContext, issueRecorder);
     }
 
+    public KeelWebResponderCommonApiImpl(RoutingContext routingContext, Supplier<SpecificLogger<ReceptionistSpecificLog>> loggerSupplier) {
+        super(routingContext, loggerSupplier);
+    }
+
     @Override
     public void respondOnSuccess(@Nullable JsonObject data) {
         try {
-            JsonObject resp = buildResponseBody(Code.OK, data);
-            String encode = resp.encode();
+            Buffer body = encodeSuccessEnvelope(data);
 
-            String contentTypeToRespond = this.contentTypeToRespond();
-            getRoutingContext().response().putHeader(HttpHeaders.CONTENT_TYPE, contentTypeToRespond);
-            getRoutingContext().response().end(encode);
+            // 预先写明长度，服务写出头部前据此判断是否压缩
+            getRoutingContext().response()
+                                .putHeader(HttpHeaders.CONTENT_TYPE, this.contentTypeToRespond())
+                                .putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(body.length()))
+                                .end(body);
         } catch (Throwable e) {
             respondOnFailure(KeelWebApiError.wrap(e));
         }
@@ -66,6 +83,23 @@ class KeelWebResponderCommonApiImpl extends AbstractKeelWebResponder<JsonObject>
         getRoutingContext().json(resp);
     }
 
+    /**
+     * 将正常返回的信封{@code {"request_id":...,"code":"OK","data":...}}直接编码为{@link Buffer}。
+     *
+     * @since 5.0.2
+     */
+    private Buffer encodeSuccessEnvelope(@Nullable JsonObject data) {
+        Buffer requestId = Json.encodeToBuffer(readRequestID());
+        Buffer payload = data == null ? JSON_NULL : data.toBuffer();
+        int length = ENVELOPE_PREFIX.length() + requestId.length() + ENVELOPE_OK_INFIX.length() + payload.length() + 1;
+        return Buffer.buffer(length)
+                     .appendBuffer(ENVELOPE_PREFIX)
+                     .appendBuffer(requestId)
+                     .appendBuffer(ENVELOPE_OK_INFIX)
+                     .appendBuffer(payload)
+                     .appendByte(ENVELOPE_SUFFIX);
+    }
+
     protected final JsonObject buildResponseBody(Code code, @Nullable JsonObject data) {
         return new JsonObject()
                 .put("request_id", readRequestID())
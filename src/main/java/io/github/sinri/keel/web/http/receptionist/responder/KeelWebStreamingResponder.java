@@ -0,0 +1,274 @@
+package io.github.sinri.keel.web.http.receptionist.responder;
+
+import io.github.sinri.keel.base.json.JsonifiedThrowable;
+import io.github.sinri.keel.core.utils.value.ValueBox;
+import io.github.sinri.keel.logger.api.logger.SpecificLogger;
+import io.github.sinri.keel.web.http.prehandler.KeelTimeoutHandler;
+import io.github.sinri.keel.web.http.receptionist.ReceptionistSpecificLog;
+import io.vertx.core.Context;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.web.RoutingContext;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 以分块传输的方式逐个输出结果元素的 Web 请求响应器，适用于导出等结果集很大或不定长的接口。
+ * <p>
+ * 输出格式由{@link Format}决定，均保留{@code request_id}与{@code code}信封：
+ * <ul>
+ *     <li>{@link Format#JSON_ARRAY}：{@code {"request_id":...,"code":"OK","data":[item,item,...]}}；</li>
+ *     <li>{@link Format#NDJSON}：首行为{@code {"request_id":...,"code":"OK"}}，其后每行一个元素。</li>
+ * </ul>
+ * 写入遵循{@link HttpServerResponse#writeQueueFull()}背压：写队列满时暂停数据流，排空后恢复。
+ * <p>
+ * 信封在首个元素（或数据流结束）时才写出；在此之前数据流失败，则按{@link KeelWebResponder#createCommonInstance}
+ * 的格式输出完整的失败响应。已开始输出后数据流失败时，{@link Format#NDJSON}追加一行{@code "code":"FAILED"}的记录后结束响应，
+ * {@link Format#JSON_ARRAY}则重置连接，使客户端不会将截断的内容误认为完整结果。
+ * <p>
+ * 开始输出时取消接口元信息中{@code timeout}设定的路由超时（参见{@link KeelTimeoutHandler}），
+ * 输出时长不受其限制。客户端断开或输出失败时停止输出并释放数据流：撤下元素处理器（对{@link #readStreamOf}适配的数据流即取消订阅），
+ * 数据流为{@link AsyncFile}或{@link AutoCloseable}时一并关闭，以免游标、发布者等上游资源一直占用。
+ *
+ * @param <T> 结果元素类型
+ * @since 5.0.2
+ */
+@NullMarked
+public class KeelWebStreamingResponder<T> extends AbstractKeelWebResponder<ReadStream<T>> {
+    /**
+     * 适配{@link Flow.Publisher}时每次向上游请求的元素数。
+     */
+    public static final int DEFAULT_PUBLISHER_BATCH_SIZE = 64;
+
+    private static final Buffer ENVELOPE_PREFIX = Buffer.buffer("{\"request_id\":");
+    private static final Buffer JSON_ARRAY_INFIX = Buffer.buffer(",\"code\":\"OK\",\"data\":[");
+    private static final Buffer JSON_ARRAY_SUFFIX = Buffer.buffer("]}");
+    private static final Buffer NDJSON_HEADER_SUFFIX = Buffer.buffer(",\"code\":\"OK\"}\n");
+    private static final byte COMMA = ',';
+    private static final byte NEWLINE = '\n';
+
+    private final Format format;
+    private final Function<T, Buffer> itemEncoder;
+    private final KeelWebResponderCommonApiImpl commonResponder;
+    private boolean envelopeWritten = false;
+    private boolean finished = false;
+    private long writtenItems = 0;
+    private @Nullable ReadStream<T> source;
+
+    public KeelWebStreamingResponder(RoutingContext routingContext, Supplier<SpecificLogger<ReceptionistSpecificLog>> loggerSupplier, Format format) {
+        this(routingContext, loggerSupplier, format, Json::encodeToBuffer);
+    }
+
+    /**
+     * @param itemEncoder 将一个元素编码为一段 JSON 的编码器；编码结果中不应包含换行符
+     */
+    public KeelWebStreamingResponder(RoutingContext routingContext, Supplier<SpecificLogger<ReceptionistSpecificLog>> loggerSupplier, Format format, Function<T, Buffer> itemEncoder) {
+        super(routingContext, loggerSupplier);
+        this.format = format;
+        this.itemEncoder = itemEncoder;
+        this.commonResponder = new KeelWebResponderCommonApiImpl(routingContext, loggerSupplier);
+    }
+
+    /**
+     * 将{@link Flow.Publisher}适配为可供本响应器输出的{@link ReadStream}。
+     *
+     * @param context   处理发布者信号的 Vert.x 上下文，通常为当前请求所在的上下文
+     * @param publisher 发布者
+     * @param batchSize 每次向上游请求的元素数
+     * @param <T>       元素类型
+     * @return 数据流，在设置元素处理器时才订阅发布者
+     */
+    public static <T> ReadStream<T> readStreamOf(Context context, Flow.Publisher<T> publisher, int batchSize) {
+        return new FlowPublisherReadStream<>(context, publisher, batchSize);
+    }
+
+    public static <T> ReadStream<T> readStreamOf(Context context, Flow.Publisher<T> publisher) {
+        return readStreamOf(context, publisher, DEFAULT_PUBLISHER_BATCH_SIZE);
+    }
+
+    /**
+     * 以{@link Flow.Publisher}提供的元素作为结果进行输出。
+     */
+    public void respondPublisher(Flow.Publisher<T> publisher) {
+        respondOnSuccess(readStreamOf(getRoutingContext().vertx().getOrCreateContext(), publisher));
+    }
+
+    /**
+     * 开始输出数据流中的元素；{@code data}为{@code null}时输出空结果。
+     */
+    @Override
+    public void respondOnSuccess(@Nullable ReadStream<T> data) {
+        // 路由超时针对的是开始响应之前的处理，不应打断已开始的长时间输出
+        KeelTimeoutHandler.cancel(getRoutingContext());
+        HttpServerResponse response = getRoutingContext().response();
+        response.setChunked(true);
+        response.putHeader(HttpHeaders.CONTENT_TYPE, contentTypeToRespond());
+        if (data == null) {
+            finishSuccessfully();
+            return;
+        }
+        this.source = data;
+        response.closeHandler(v -> {
+            if (!finished) {
+                finished = true;
+                releaseSource();
+                getLogger().error(log -> log.message("Client closed the streaming response after " + writtenItems + " items"));
+            }
+        });
+        response.drainHandler(v -> {
+            if (!finished) {
+                data.resume();
+            }
+        });
+        data.exceptionHandler(this::failStreaming);
+        data.endHandler(v -> finishSuccessfully());
+        data.handler(item -> {
+            if (finished) {
+                return;
+            }
+            Buffer encoded;
+            try {
+                encoded = itemEncoder.apply(item);
+            } catch (Throwable throwable) {
+                failStreaming(throwable);
+                return;
+            }
+            writeItem(encoded);
+            if (response.writeQueueFull()) {
+                data.pause();
+            }
+        });
+    }
+
+    @Override
+    public void respondOnFailure(KeelWebApiError webApiError, @Nullable ValueBox<?> dataValueBox) {
+        commonResponder.respondOnFailure(webApiError, dataValueBox);
+    }
+
+    @Override
+    public String contentTypeToRespond() {
+        return format.contentType;
+    }
+
+    private void writeItem(Buffer encoded) {
+        Buffer chunk;
+        if (!envelopeWritten) {
+            chunk = buildEnvelopeHead(encoded.length() + 1);
+        } else {
+            chunk = Buffer.buffer(encoded.length() + 1);
+            if (format == Format.JSON_ARRAY) {
+                chunk.appendByte(COMMA);
+            }
+        }
+        chunk.appendBuffer(encoded);
+        if (format == Format.NDJSON) {
+            chunk.appendByte(NEWLINE);
+        }
+        writtenItems++;
+        getRoutingContext().response().write(chunk);
+    }
+
+    private Buffer buildEnvelopeHead(int extraCapacity) {
+        envelopeWritten = true;
+        Buffer requestId = Json.encodeToBuffer(readRequestID());
+        Buffer infix = format == Format.JSON_ARRAY ? JSON_ARRAY_INFIX : NDJSON_HEADER_SUFFIX;
+        return Buffer.buffer(ENVELOPE_PREFIX.length() + requestId.length() + infix.length() + extraCapacity)
+                     .appendBuffer(ENVELOPE_PREFIX)
+                     .appendBuffer(requestId)
+                     .appendBuffer(infix);
+    }
+
+    private void finishSuccessfully() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        HttpServerResponse response = getRoutingContext().response();
+        Buffer tail = envelopeWritten ? Buffer.buffer() : buildEnvelopeHead(JSON_ARRAY_SUFFIX.length());
+        if (format == Format.JSON_ARRAY) {
+            tail.appendBuffer(JSON_ARRAY_SUFFIX);
+        }
+        recordResponseVerbosely(new JsonObject().put("streamed_items", writtenItems));
+        response.end(tail);
+    }
+
+    private void failStreaming(Throwable throwable) {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        releaseSource();
+        KeelWebApiError webApiError = (throwable instanceof KeelWebApiError)
+                ? (KeelWebApiError) throwable
+                : KeelWebApiError.wrap(throwable);
+        HttpServerResponse response = getRoutingContext().response();
+        if (!envelopeWritten && !response.headWritten()) {
+            response.setChunked(false);
+            commonResponder.respondOnFailure(webApiError);
+            return;
+        }
+        getLogger().error(log -> log.message("Streaming response failed after " + writtenItems + " items")
+                                    .exception(throwable));
+        if (format == Format.NDJSON) {
+            JsonObject failureLine = new JsonObject()
+                    .put("request_id", readRequestID())
+                    .put("code", KeelWebResponderCommonApiImpl.Code.FAILED.name())
+                    .put("throwable", JsonifiedThrowable.wrap(webApiError).toJsonObject());
+            response.end(failureLine.toBuffer().appendByte(NEWLINE));
+        } else {
+            response.reset();
+        }
+    }
+
+    /**
+     * 停止读取并释放数据流；只执行一次。
+     */
+    private void releaseSource() {
+        ReadStream<T> data = this.source;
+        if (data == null) {
+            return;
+        }
+        this.source = null;
+        data.pause();
+        data.handler(null);
+        if (data instanceof AsyncFile asyncFile) {
+            asyncFile.close();
+        } else if (data instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                getLogger().error(log -> log.message("Failed to close the streaming source")
+                                            .exception(e));
+            }
+        }
+    }
+
+    /**
+     * 流式输出格式。
+     */
+    public enum Format {
+        /**
+         * 元素作为信封中{@code data}数组的成员输出。
+         */
+        JSON_ARRAY("application/json"),
+        /**
+         * 换行分隔的 JSON，首行为信封，其后每行一个元素。
+         */
+        NDJSON("application/x-ndjson");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package io.github.sinri.keel.web.logging;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import org.jspecify.annotations.NullMarked;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * 二进制负载在日志中的有界表示。
+ * <p>
+ * 负载内容至多记录前{@link #getMaxBytes()}个字节，编码为十六进制（大写）或 Base64，并总是记录负载的总长度；
+ * 也可只记录 SHA-256 摘要，或在内容之外附加摘要，以便在不记录完整内容时比对负载。
+ * 编码结果直接写入按最终长度预分配的数组，不经过{@link StringBuilder}等中间缓冲，也不复制负载中未被记录的部分。
+ * <p>
+ * 输出的字段为：{@code buffer_size}（总长度）；视设置而定的{@code buffer_content}、{@code buffer_encoding}（仅 Base64 时）、
+ * {@code buffer_truncated}（仅截断时）与{@code buffer_sha256}。
+ * 本类不可变，可在多个组件间共享。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+public final class BinaryPayloadLogFormatter {
+    /**
+     * 默认记录的字节数上限。
+     */
+    public static final int DEFAULT_MAX_BYTES = 256;
+    private static final BinaryPayloadLogFormatter DEFAULT = new BinaryPayloadLogFormatter(Encoding.HEX, DEFAULT_MAX_BYTES, false);
+    private static final BinaryPayloadLogFormatter HASH_ONLY = new BinaryPayloadLogFormatter(Encoding.NONE, 0, true);
+    private static final byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final int DIGEST_CHUNK_SIZE = 4096;
+
+    private final Encoding encoding;
+    private final int maxBytes;
+    private final boolean withHash;
+
+    private BinaryPayloadLogFormatter(Encoding encoding, int maxBytes, boolean withHash) {
+        this.encoding = encoding;
+        this.maxBytes = maxBytes;
+        this.withHash = withHash;
+    }
+
+    /**
+     * @return 以十六进制记录至多前{@value #DEFAULT_MAX_BYTES}个字节的格式化器
+     */
+    public static BinaryPayloadLogFormatter defaultFormatter() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param maxBytes 记录的字节数上限，须为正数
+     */
+    public static BinaryPayloadLogFormatter truncatedHex(int maxBytes) {
+        checkMaxBytes(maxBytes);
+        return new BinaryPayloadLogFormatter(Encoding.HEX, maxBytes, false);
+    }
+
+    /**
+     * @param maxBytes 记录的字节数上限，须为正数
+     */
+    public static BinaryPayloadLogFormatter base64(int maxBytes) {
+        checkMaxBytes(maxBytes);
+        return new BinaryPayloadLogFormatter(Encoding.BASE64, maxBytes, false);
+    }
+
+    /**
+     * @return 仅记录长度与 SHA-256 摘要的格式化器
+     */
+    public static BinaryPayloadLogFormatter hashOnly() {
+        return HASH_ONLY;
+    }
+
+    /**
+     * @return 在本格式化器的输出中附加完整负载 SHA-256 摘要的格式化器
+     */
+    public BinaryPayloadLogFormatter withHash() {
+        if (withHash) return this;
+        return new BinaryPayloadLogFormatter(encoding, maxBytes, true);
+    }
+
+    public Encoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * @return 记录的字节数上限；{@link Encoding#NONE}时为 0
+     */
+    public int getMaxBytes() {
+        return maxBytes;
+    }
+
+    public boolean isWithHash() {
+        return withHash;
+    }
+
+    /**
+     * 将负载的表示写入{@code target}。
+     *
+     * @param buffer 负载
+     * @param target 写入的目标，如日志记录的上下文项
+     * @return {@code target}
+     */
+    public JsonObject writeTo(Buffer buffer, JsonObject target) {
+        int length = buffer.length();
+        if (encoding != Encoding.NONE) {
+            int recorded = Math.min(length, maxBytes);
+            if (encoding == Encoding.HEX) {
+                target.put("buffer_content", encodeHex(buffer, recorded));
+            } else {
+                target.put("buffer_content", Base64.getEncoder().encodeToString(buffer.getBytes(0, recorded)));
+                target.put("buffer_encoding", "base64");
+            }
+            if (recorded < length) {
+                target.put("buffer_truncated", true);
+            }
+        }
+        if (withHash) {
+            target.put("buffer_sha256", sha256Hex(buffer));
+        }
+        target.put("buffer_size", length);
+        return target;
+    }
+
+    /**
+     * @return 负载的表示
+     */
+    public JsonObject describe(Buffer buffer) {
+        return writeTo(buffer, new JsonObject());
+    }
+
+    /**
+     * 以大写十六进制编码负载的前{@code byteCount}个字节，不限制长度。
+     */
+    static String encodeHex(Buffer buffer, int byteCount) {
+        byte[] chars = new byte[byteCount * 2];
+        for (int i = 0; i < byteCount; i++) {
+            int b = buffer.getByte(i) & 0xFF;
+            chars[i * 2] = HEX_DIGITS[b >>> 4];
+            chars[i * 2 + 1] = HEX_DIGITS[b & 0x0F];
+        }
+        return new String(chars, StandardCharsets.US_ASCII);
+    }
+
+    private static String sha256Hex(Buffer buffer) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        int length = buffer.length();
+        byte[] chunk = new byte[Math.min(length, DIGEST_CHUNK_SIZE)];
+        for (int offset = 0; offset < length; offset += chunk.length) {
+            int end = Math.min(length, offset + chunk.length);
+            buffer.getBytes(offset, end, chunk, 0);
+            digest.update(chunk, 0, end - offset);
+        }
+        return encodeHex(Buffer.buffer(digest.digest()), 32);
+    }
+
+    private static void checkMaxBytes(int maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BinaryPayloadLogFormatter{" + encoding + (maxBytes > 0 ? "(" + maxBytes + ")" : "")
+                + (withHash ? "+sha256" : "") + "}";
+    }
+
+    public enum Encoding {
+        /**
+         * 不记录内容。
+         */
+        NONE,
+        HEX,
+        BASE64
+    }
+}
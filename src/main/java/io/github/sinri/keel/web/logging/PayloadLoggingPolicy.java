@@ -0,0 +1,180 @@
+package io.github.sinri.keel.web.logging;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * 网络负载（如套接字读到的数据块）的日志记录策略。
+ * <p>
+ * 决定是否记录某个负载，以及记录其哪些内容：
+ * <ul>
+ *     <li>{@link #off()}：不记录；</li>
+ *     <li>{@link #lengthOnly()}：仅记录长度；</li>
+ *     <li>{@link #firstBytes(int)}：记录长度与前 N 个字节的十六进制内容；</li>
+ *     <li>{@link #sampledHex(int)}：每 N 个负载记录一个，记录完整的十六进制内容；</li>
+ *     <li>{@link #fullHex()}：记录每个负载完整的十六进制内容；</li>
+ *     <li>{@link #formatted(BinaryPayloadLogFormatter)}：按给定的{@link BinaryPayloadLogFormatter}有界地记录每个负载，
+ *     {@link #bounded()}为其默认设置。</li>
+ * </ul>
+ * 本类不可变，可在多个组件间共享。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+public final class PayloadLoggingPolicy {
+    private static final PayloadLoggingPolicy OFF = new PayloadLoggingPolicy(Mode.OFF, 0);
+    private static final PayloadLoggingPolicy LENGTH_ONLY = new PayloadLoggingPolicy(Mode.LENGTH_ONLY, 0);
+    private static final PayloadLoggingPolicy FULL_HEX = new PayloadLoggingPolicy(Mode.FULL_HEX, 0);
+    private static final PayloadLoggingPolicy BOUNDED = new PayloadLoggingPolicy(Mode.FORMATTED, 0,
+            BinaryPayloadLogFormatter.defaultFormatter());
+
+    private final Mode mode;
+    private final int parameter;
+    private final @Nullable BinaryPayloadLogFormatter formatter;
+
+    private PayloadLoggingPolicy(Mode mode, int parameter) {
+        this(mode, parameter, null);
+    }
+
+    private PayloadLoggingPolicy(Mode mode, int parameter, @Nullable BinaryPayloadLogFormatter formatter) {
+        this.mode = mode;
+        this.parameter = parameter;
+        this.formatter = formatter;
+    }
+
+    public static PayloadLoggingPolicy off() {
+        return OFF;
+    }
+
+    public static PayloadLoggingPolicy lengthOnly() {
+        return LENGTH_ONLY;
+    }
+
+    /**
+     * @param byteCount 记录的字节数上限，须为正数
+     */
+    public static PayloadLoggingPolicy firstBytes(int byteCount) {
+        if (byteCount <= 0) {
+            throw new IllegalArgumentException("byteCount must be positive");
+        }
+        return new PayloadLoggingPolicy(Mode.FIRST_BYTES, byteCount);
+    }
+
+    /**
+     * @param oneInN 采样间隔，每 N 个负载记录一个，须为正数
+     */
+    public static PayloadLoggingPolicy sampledHex(int oneInN) {
+        if (oneInN <= 0) {
+            throw new IllegalArgumentException("oneInN must be positive");
+        }
+        return new PayloadLoggingPolicy(Mode.SAMPLED_HEX, oneInN);
+    }
+
+    public static PayloadLoggingPolicy fullHex() {
+        return FULL_HEX;
+    }
+
+    /**
+     * 按给定的格式化器记录每个负载。
+     *
+     * @since 5.0.2
+     */
+    public static PayloadLoggingPolicy formatted(BinaryPayloadLogFormatter formatter) {
+        return new PayloadLoggingPolicy(Mode.FORMATTED, 0, Objects.requireNonNull(formatter));
+    }
+
+    /**
+     * @return 按{@link BinaryPayloadLogFormatter#defaultFormatter()}记录每个负载的策略，即记录长度与至多前
+     *         {@value BinaryPayloadLogFormatter#DEFAULT_MAX_BYTES}个字节的十六进制内容
+     * @since 5.0.2
+     */
+    public static PayloadLoggingPolicy bounded() {
+        return BOUNDED;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return {@link Mode#FIRST_BYTES}下为字节数上限，{@link Mode#SAMPLED_HEX}下为采样间隔，其他模式下为 0
+     */
+    public int getParameter() {
+        return parameter;
+    }
+
+    /**
+     * @return {@link Mode#FORMATTED}下所用的格式化器，其他模式下为{@code null}
+     * @since 5.0.2
+     */
+    public @Nullable BinaryPayloadLogFormatter getFormatter() {
+        return formatter;
+    }
+
+    /**
+     * 判断是否记录序号为{@code sequence}（自 0 起）的负载。
+     * 返回假时调用方应跳过整条日志，不创建任何日志记录。
+     *
+     * @param sequence 负载在其来源中的序号
+     * @return 是否记录
+     */
+    public boolean shouldLog(long sequence) {
+        return switch (mode) {
+            case OFF -> false;
+            case SAMPLED_HEX -> sequence % parameter == 0;
+            default -> true;
+        };
+    }
+
+    /**
+     * 按本策略描述负载；仅应在日志记录实际输出时调用。
+     *
+     * @param buffer 负载
+     * @return 包含{@code buffer_size}，以及视策略而定的{@code buffer_content}与{@code buffer_truncated}的描述
+     */
+    public JsonObject describe(Buffer buffer) {
+        JsonObject description = new JsonObject();
+        switch (mode) {
+            case FIRST_BYTES -> {
+                if (buffer.length() > parameter) {
+                    description.put("buffer_content", BinaryPayloadLogFormatter.encodeHex(buffer, parameter));
+                    description.put("buffer_truncated", true);
+                } else {
+                    description.put("buffer_content", BinaryPayloadLogFormatter.encodeHex(buffer, buffer.length()));
+                }
+            }
+            case SAMPLED_HEX, FULL_HEX ->
+                    description.put("buffer_content", BinaryPayloadLogFormatter.encodeHex(buffer, buffer.length()));
+            case FORMATTED -> {
+                return Objects.requireNonNull(formatter).writeTo(buffer, description);
+            }
+            default -> {
+                // OFF, LENGTH_ONLY: 不记录内容
+            }
+        }
+        description.put("buffer_size", buffer.length());
+        return description;
+    }
+
+    @Override
+    public String toString() {
+        return "PayloadLoggingPolicy{" + mode + (parameter > 0 ? "(" + parameter + ")" : "")
+                + (formatter != null ? "(" + formatter + ")" : "") + "}";
+    }
+
+    public enum Mode {
+        OFF,
+        LENGTH_ONLY,
+        FIRST_BYTES,
+        SAMPLED_HEX,
+        FULL_HEX,
+        /**
+         * @since 5.0.2
+         */
+        FORMATTED
+    }
+}
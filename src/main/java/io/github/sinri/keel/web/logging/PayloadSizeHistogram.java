@@ -0,0 +1,145 @@
+package io.github.sinri.keel.web.logging;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 负载大小的直方图，按 2 的幂划分区间，用于依据生产数据确定缓冲区大小。
+ * <p>
+ * 第 0 个区间计数大小为 0 的负载，第 i 个区间（i ≥ 1）计数大小在 [2^(i-1), 2^i) 内的负载。
+ * 记录一次只需一次位运算与一次{@link LongAdder}累加，可被多个线程并发记录。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+public final class PayloadSizeHistogram {
+    private static final int BUCKET_COUNT = 32;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+    private final LongAdder totalBytes = new LongAdder();
+
+    public PayloadSizeHistogram() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 记录一个大小为{@code size}字节的负载。
+     */
+    public void record(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative");
+        }
+        buckets[bucketOf(size)].increment();
+        totalBytes.add(size);
+    }
+
+    /**
+     * @return 已记录的负载数
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * @return 已记录负载的总字节数
+     */
+    public long getTotalBytes() {
+        return totalBytes.sum();
+    }
+
+    /**
+     * @return 各区间的计数，下标含义见类说明
+     */
+    public long[] getBucketCounts() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * 估计分位数，结果为所在区间的上界（不含），即能容纳该比例负载的 2 的幂大小。
+     *
+     * @param quantile 分位，取值 (0, 1]
+     * @return 估计值；尚无记录时为 0
+     */
+    public long getQuantileUpperBound(double quantile) {
+        if (!(quantile > 0 && quantile <= 1)) {
+            throw new IllegalArgumentException("quantile must be in (0, 1]");
+        }
+        long[] counts = getBucketCounts();
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long threshold = (long) Math.ceil(total * quantile);
+        long accumulated = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            accumulated += counts[i];
+            if (accumulated >= threshold) {
+                return upperBoundOf(i);
+            }
+        }
+        return upperBoundOf(BUCKET_COUNT - 1);
+    }
+
+    /**
+     * 清空全部计数；与并发记录同时进行时，部分记录可能被计入清空前或清空后。
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        totalBytes.reset();
+    }
+
+    /**
+     * @return 包含{@code count}、{@code total_bytes}、{@code p50}、{@code p99}以及非空区间列表{@code buckets}
+     *         （每项为{@code {"upper_bound":...,"count":...}}）的快照
+     */
+    public JsonObject toJsonObject() {
+        long[] counts = getBucketCounts();
+        JsonArray bucketArray = new JsonArray();
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += counts[i];
+            if (counts[i] > 0) {
+                bucketArray.add(new JsonObject()
+                        .put("upper_bound", upperBoundOf(i))
+                        .put("count", counts[i]));
+            }
+        }
+        return new JsonObject()
+                .put("count", count)
+                .put("total_bytes", getTotalBytes())
+                .put("p50", getQuantileUpperBound(0.5))
+                .put("p99", getQuantileUpperBound(0.99))
+                .put("buckets", bucketArray);
+    }
+
+    private static int bucketOf(int size) {
+        return 32 - Integer.numberOfLeadingZeros(size);
+    }
+
+    private static long upperBoundOf(int bucket) {
+        return 1L << bucket;
+    }
+
+    @Override
+    public String toString() {
+        return "PayloadSizeHistogram" + toJsonObject().encode();
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * <p>The logging package provides logging helpers shared by the network components of Keel Web.</p>
+ * <p>- Payload logging policies deciding how much of a transferred payload is recorded</p>
+ */
+package io.github.sinri.keel.web.logging;
@@ -0,0 +1,83 @@
+package io.github.sinri.keel.web.tcp;
+
+import io.vertx.core.buffer.Buffer;
+import org.jspecify.annotations.NullMarked;
+
+import java.nio.ByteOrder;
+import java.util.function.Consumer;
+
+/**
+ * 将 TCP 数据块重组为完整帧的解码器。
+ * <p>
+ * 解码器有状态，一个实例只能用于一个连接，且须串行调用。
+ * 输出的帧为输入数据块（或跨数据块时的累积缓冲）的切片，不复制帧内容；
+ * 只有未构成完整帧的剩余字节会被复制一次到累积缓冲中，后续数据块追加其后。
+ * 帧内容不应被修改。
+ *
+ * @see KeelFramedSocketWrapper
+ * @since 5.0.2
+ */
+@NullMarked
+public interface FrameDecoder {
+    /**
+     * 固定长度的帧。
+     *
+     * @param frameLength 帧长度，须为正数
+     */
+    static FrameDecoder fixedLength(int frameLength) {
+        return new FrameDecoders.FixedLength(frameLength);
+    }
+
+    /**
+     * 以长度字段为前缀的帧；长度字段为无符号整数，表示其后内容的字节数，输出的帧不含长度字段。
+     *
+     * @param lengthFieldSize 长度字段的字节数，可为 1、2、4、8
+     * @param byteOrder       长度字段的字节序
+     * @param maxFrameLength  帧内容长度上限，超过时解码失败
+     */
+    static FrameDecoder lengthField(int lengthFieldSize, ByteOrder byteOrder, int maxFrameLength) {
+        return new FrameDecoders.LengthField(lengthFieldSize, byteOrder, maxFrameLength);
+    }
+
+    /**
+     * 以给定的分隔符结尾的帧，输出的帧不含分隔符。
+     *
+     * @param delimiter      分隔符，不能为空
+     * @param maxFrameLength 帧长度上限，超过仍未遇到分隔符时解码失败
+     */
+    static FrameDecoder delimiter(Buffer delimiter, int maxFrameLength) {
+        return new FrameDecoders.Delimiter(delimiter, maxFrameLength, false);
+    }
+
+    /**
+     * 以{@code \n}或{@code \r\n}结尾的行，输出的帧不含行尾。
+     *
+     * @param maxFrameLength 行长度上限，超过仍未遇到行尾时解码失败
+     */
+    static FrameDecoder lines(int maxFrameLength) {
+        return new FrameDecoders.Delimiter(Buffer.buffer("\n"), maxFrameLength, true);
+    }
+
+    /**
+     * 以 varint（无符号 LEB128，与 Protocol Buffers 的长度前缀相同）表示长度为前缀的帧，输出的帧不含长度前缀。
+     *
+     * @param maxFrameLength 帧内容长度上限，超过时解码失败
+     */
+    static FrameDecoder varintPrefixed(int maxFrameLength) {
+        return new FrameDecoders.VarintPrefixed(maxFrameLength);
+    }
+
+    /**
+     * 输入一个数据块，按顺序输出其中（连同之前剩余的字节）构成的全部完整帧。
+     *
+     * @param chunk         数据块
+     * @param frameConsumer 帧的接收者
+     * @throws IllegalStateException 数据不符合帧格式，或帧长度超过上限；此后解码器不应再使用
+     */
+    void decode(Buffer chunk, Consumer<Buffer> frameConsumer);
+
+    /**
+     * @return 已接收但尚未构成完整帧的字节数
+     */
+    int bufferedBytes();
+}
@@ -0,0 +1,236 @@
+package io.github.sinri.keel.web.tcp;
+
+import io.vertx.core.buffer.Buffer;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.ByteOrder;
+import java.util.function.Consumer;
+
+/**
+ * {@link FrameDecoder}的各内置实现。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+final class FrameDecoders {
+    private FrameDecoders() {
+    }
+
+    /**
+     * 计算含长度前缀在内的整帧字节数；超出单个缓冲可容纳的长度时视为非法帧。
+     */
+    static int frameTotal(int prefixSize, long frameLength) {
+        long total = prefixSize + frameLength;
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Frame length " + frameLength + " with a " + prefixSize
+                    + "-byte prefix exceeds the maximum buffer size");
+        }
+        return (int) total;
+    }
+
+    /**
+     * 各解码器共用的累积逻辑：无剩余字节时直接在输入数据块上解码，帧为其切片；
+     * 有剩余字节时复制到独立的累积缓冲，后续数据块追加其后，帧为累积缓冲的切片。
+     * 已输出切片的缓冲不再被追加，故切片内容保持不变。
+     */
+    abstract static class Cumulating implements FrameDecoder {
+        private @Nullable Buffer cumulation;
+
+        @Override
+        public final void decode(Buffer chunk, Consumer<Buffer> frameConsumer) {
+            Buffer buffer;
+            if (cumulation == null) {
+                buffer = chunk;
+            } else {
+                cumulation.appendBuffer(chunk);
+                buffer = cumulation;
+            }
+            int position = 0;
+            int length = buffer.length();
+            while (position < length) {
+                int consumed = decodeFrame(buffer, position, length - position, frameConsumer);
+                if (consumed <= 0) {
+                    break;
+                }
+                position += consumed;
+            }
+            if (position == length) {
+                cumulation = null;
+            } else if (position > 0 || buffer != cumulation) {
+                cumulation = buffer.getBuffer(position, length);
+            }
+        }
+
+        @Override
+        public final int bufferedBytes() {
+            return cumulation == null ? 0 : cumulation.length();
+        }
+
+        /**
+         * 尝试自{@code position}处解码一帧。
+         *
+         * @return 解码一帧所消耗的字节数；数据不足一帧时返回 0
+         */
+        protected abstract int decodeFrame(Buffer buffer, int position, int available, Consumer<Buffer> frameConsumer);
+    }
+
+    static final class FixedLength extends Cumulating {
+        private final int frameLength;
+
+        FixedLength(int frameLength) {
+            if (frameLength <= 0) {
+                throw new IllegalArgumentException("frameLength must be positive");
+            }
+            this.frameLength = frameLength;
+        }
+
+        @Override
+        protected int decodeFrame(Buffer buffer, int position, int available, Consumer<Buffer> frameConsumer) {
+            if (available < frameLength) {
+                return 0;
+            }
+            frameConsumer.accept(buffer.slice(position, position + frameLength));
+            return frameLength;
+        }
+    }
+
+    static final class LengthField extends Cumulating {
+        private final int lengthFieldSize;
+        private final boolean bigEndian;
+        private final int maxFrameLength;
+
+        LengthField(int lengthFieldSize, ByteOrder byteOrder, int maxFrameLength) {
+            if (lengthFieldSize != 1 && lengthFieldSize != 2 && lengthFieldSize != 4 && lengthFieldSize != 8) {
+                throw new IllegalArgumentException("lengthFieldSize must be 1, 2, 4 or 8");
+            }
+            if (maxFrameLength < 0) {
+                throw new IllegalArgumentException("maxFrameLength must not be negative");
+            }
+            this.lengthFieldSize = lengthFieldSize;
+            this.bigEndian = byteOrder == ByteOrder.BIG_ENDIAN;
+            this.maxFrameLength = maxFrameLength;
+        }
+
+        @Override
+        protected int decodeFrame(Buffer buffer, int position, int available, Consumer<Buffer> frameConsumer) {
+            if (available < lengthFieldSize) {
+                return 0;
+            }
+            long frameLength = switch (lengthFieldSize) {
+                case 1 -> buffer.getUnsignedByte(position);
+                case 2 -> bigEndian ? buffer.getUnsignedShort(position) : buffer.getUnsignedShortLE(position);
+                case 4 -> bigEndian ? buffer.getUnsignedInt(position) : buffer.getUnsignedIntLE(position);
+                default -> bigEndian ? buffer.getLong(position) : buffer.getLongLE(position);
+            };
+            if (frameLength < 0 || frameLength > maxFrameLength) {
+                throw new IllegalStateException("Frame length " + Long.toUnsignedString(frameLength)
+                        + " exceeds the limit " + maxFrameLength);
+            }
+            int total = frameTotal(lengthFieldSize, frameLength);
+            if (available < total) {
+                return 0;
+            }
+            frameConsumer.accept(buffer.slice(position + lengthFieldSize, position + total));
+            return total;
+        }
+    }
+
+    static final class Delimiter extends Cumulating {
+        private final byte[] delimiter;
+        private final int maxFrameLength;
+        private final boolean stripCarriageReturn;
+        /**
+         * 自未消耗数据起点计，已确认不含分隔符起点的字节数，避免数据跨块到达时重复扫描。
+         */
+        private int scannedBytes = 0;
+
+        Delimiter(Buffer delimiter, int maxFrameLength, boolean stripCarriageReturn) {
+            if (delimiter.length() == 0) {
+                throw new IllegalArgumentException("delimiter must not be empty");
+            }
+            if (maxFrameLength < 0) {
+                throw new IllegalArgumentException("maxFrameLength must not be negative");
+            }
+            this.delimiter = delimiter.getBytes();
+            this.maxFrameLength = maxFrameLength;
+            this.stripCarriageReturn = stripCarriageReturn;
+        }
+
+        @Override
+        protected int decodeFrame(Buffer buffer, int position, int available, Consumer<Buffer> frameConsumer) {
+            int end = position + available;
+            int lastStart = end - delimiter.length;
+            for (int i = position + scannedBytes; i <= lastStart; i++) {
+                if (matchesDelimiter(buffer, i)) {
+                    scannedBytes = 0;
+                    int frameEnd = i;
+                    if (stripCarriageReturn && frameEnd > position && buffer.getByte(frameEnd - 1) == '\r') {
+                        frameEnd--;
+                    }
+                    if (frameEnd - position > maxFrameLength) {
+                        throw new IllegalStateException("Frame length " + (frameEnd - position)
+                                + " exceeds the limit " + maxFrameLength);
+                    }
+                    frameConsumer.accept(buffer.slice(position, frameEnd));
+                    return i - position + delimiter.length;
+                }
+            }
+            scannedBytes = Math.max(0, available - delimiter.length + 1);
+            if (available > (long) maxFrameLength + delimiter.length + (stripCarriageReturn ? 1 : 0)) {
+                throw new IllegalStateException("No delimiter found within " + maxFrameLength + " bytes");
+            }
+            return 0;
+        }
+
+        private boolean matchesDelimiter(Buffer buffer, int index) {
+            for (int j = 0; j < delimiter.length; j++) {
+                if (buffer.getByte(index + j) != delimiter[j]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    static final class VarintPrefixed extends Cumulating {
+        private static final int MAX_VARINT_SIZE = 5;
+        private final int maxFrameLength;
+
+        VarintPrefixed(int maxFrameLength) {
+            if (maxFrameLength < 0) {
+                throw new IllegalArgumentException("maxFrameLength must not be negative");
+            }
+            this.maxFrameLength = maxFrameLength;
+        }
+
+        @Override
+        protected int decodeFrame(Buffer buffer, int position, int available, Consumer<Buffer> frameConsumer) {
+            long frameLength = 0;
+            int prefixSize = 0;
+            while (true) {
+                if (prefixSize >= available) {
+                    return 0;
+                }
+                if (prefixSize >= MAX_VARINT_SIZE) {
+                    throw new IllegalStateException("Malformed varint length prefix");
+                }
+                byte b = buffer.getByte(position + prefixSize);
+                frameLength |= (long) (b & 0x7F) << (7 * prefixSize);
+                prefixSize++;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+            }
+            if (frameLength > maxFrameLength) {
+                throw new IllegalStateException("Frame length " + frameLength + " exceeds the limit " + maxFrameLength);
+            }
+            int total = frameTotal(prefixSize, frameLength);
+            if (available < total) {
+                return 0;
+            }
+            frameConsumer.accept(buffer.slice(position + prefixSize, position + total));
+            return total;
+        }
+    }
+}
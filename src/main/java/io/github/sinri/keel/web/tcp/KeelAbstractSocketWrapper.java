@@ -2,34 +2,81 @@ package io.github.sinri.keel.web.tcp;
 
 import io.github.sinri.keel.base.verticles.KeelVerticleBase;
 import io.github.sinri.keel.core.servant.funnel.Funnel;
+import io.github.sinri.keel.core.utils.ReflectionUtils;
 import io.github.sinri.keel.logger.api.LateObject;
 import io.github.sinri.keel.logger.api.factory.LoggerFactory;
 import io.github.sinri.keel.logger.api.logger.SpecificLogger;
+import io.github.sinri.keel.web.logging.PayloadLoggingPolicy;
+import io.github.sinri.keel.web.logging.PayloadSizeHistogram;
+import io.github.sinri.keel.web.utils.VirtualThreadExecutorHolder;
+import io.vertx.core.Context;
 import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Future;
 import io.vertx.core.ThreadingModel;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.net.NetSocket;
 import io.vertx.core.net.SocketAddress;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 
 /**
  * 针对{@link NetSocket}的封装类。
+ * <p>
+ * 入站数据按到达顺序逐个交由{@link #whenBufferComes(Buffer)}处理，执行方式见{@link SocketProcessingMode}。
+ * 默认为每个套接字部署一个{@link Funnel}工作者 verticle；连接数很大时，可改用共享线程池或虚拟线程，
+ * 并通过{@link #attach(Vertx)}免去 verticle 部署。
  *
  * @since 5.0.0
  */
 @NullMarked
 abstract public class KeelAbstractSocketWrapper extends KeelVerticleBase {
+    /**
+     * {@link SocketProcessingMode#SHARED_POOL}模式下共用的 Vert.x 工作者线程池名称。
+     *
+     * @since 5.0.2
+     */
+    public static final String SHARED_WORKER_POOL_NAME = "keel-socket-processing";
+
     private final String socketID;
     private final NetSocket socket;
-    private final Funnel funnel;
+    /**
+     * 创建本封装类时所在的上下文，通常即接受连接时套接字所在的事件循环上下文。
+     */
+    private final @Nullable Context socketContext;
+    private SocketProcessingMode processingMode = SocketProcessingMode.FUNNEL_WORKER;
+    private @Nullable Funnel funnel;
+    private @Nullable SerialTaskQueue taskQueue;
+    private @Nullable WorkerExecutor sharedWorkerExecutor;
+    private boolean attachedWithoutDeployment = false;
+    private PayloadLoggingPolicy payloadLoggingPolicy = PayloadLoggingPolicy.bounded();
+    private long readBufferCount = 0;
+    private final PayloadSizeHistogram readPayloadSizes = new PayloadSizeHistogram();
+    private int writeBatchingMaxBytes = 0;
+    private long writeBatchingMaxDelayMillis = 0;
+    private @Nullable SocketWriteBatcher writeBatcher;
+    private final Object flowControlLock = new Object();
+    private long inboundLowWatermarkBytes = 0;
+    private long inboundHighWatermarkBytes = 0;
+    private int inboundLowWatermarkTasks = 0;
+    private int inboundHighWatermarkTasks = 0;
+    private long pendingInboundBytes = 0;
+    private int pendingInboundTasks = 0;
+    private boolean pausedForRead = false;
+    private boolean pausedForWrite = false;
+    private volatile long lastReadTime = System.currentTimeMillis();
+    private volatile long lastWriteTime = lastReadTime;
 
     private final LateObject<SpecificLogger<SocketSpecificLog>> lateLogger = new LateObject<>();
+    private final List<Runnable> closeListeners = new ArrayList<>(1);
 
     public KeelAbstractSocketWrapper(NetSocket socket) {
         this(socket, UUID.randomUUID().toString());
@@ -38,24 +85,84 @@ abstract public class KeelAbstractSocketWrapper extends KeelVerticleBase {
     public KeelAbstractSocketWrapper(NetSocket socket, String socketID) {
         this.socketID = socketID;
         this.socket = socket;
-        this.funnel = new Funnel();
+        this.socketContext = Vertx.currentContext();
     }
 
     @Override
     protected Future<?> startVerticle() {
         lateLogger.set(this.buildLogger());
-        return this.funnel.deployMe(getKeel(), new DeploymentOptions().setThreadingModel(ThreadingModel.WORKER))
-                          .compose(deploymentID -> {
-                              this.socket
-                                      .handler(buffer -> {
-                                          getLogger().info(eventLog -> eventLog
-                                                  .message("READ BUFFER " + buffer.length() + " BYTES")
-                                                  .buffer(buffer)
-                                          );
-
-                                          this.funnel.add(() -> whenBufferComes(buffer));
-                                      })
-                                      .endHandler(end -> {
+        if (processingMode == SocketProcessingMode.FUNNEL_WORKER) {
+            Funnel createdFunnel = new Funnel();
+            this.funnel = createdFunnel;
+            return createdFunnel.deployMe(getKeel(), new DeploymentOptions().setThreadingModel(ThreadingModel.WORKER))
+                                .compose(deploymentID -> {
+                                    installSocketHandlers();
+                                    return Future.succeededFuture();
+                                });
+        }
+        this.taskQueue = createTaskQueue(getKeel());
+        installSocketHandlers();
+        return Future.succeededFuture();
+    }
+
+    /**
+     * 不部署为 verticle，直接在套接字上安装处理器，开始接收数据。
+     * <p>
+     * 仅适用于{@link SocketProcessingMode#SHARED_POOL}与{@link SocketProcessingMode#VIRTUAL_THREAD}模式；
+     * 应在套接字所在的上下文中（通常即连接处理器中）调用。
+     * 以此方式启动时，{@link #getKeel()}不可用，套接字关闭时也无需卸载。
+     *
+     * @param vertx 提供共享工作者线程池的 Vert.x 实例
+     * @throws IllegalStateException 处理方式为{@link SocketProcessingMode#FUNNEL_WORKER}
+     * @since 5.0.2
+     */
+    public final void attach(Vertx vertx) {
+        if (processingMode == SocketProcessingMode.FUNNEL_WORKER) {
+            throw new IllegalStateException("Socket wrapper in FUNNEL_WORKER mode must be deployed as a verticle");
+        }
+        this.attachedWithoutDeployment = true;
+        lateLogger.set(this.buildLogger());
+        this.taskQueue = createTaskQueue(vertx);
+        installSocketHandlers();
+    }
+
+    private SerialTaskQueue createTaskQueue(Vertx vertx) {
+        if (processingMode == SocketProcessingMode.VIRTUAL_THREAD) {
+            return new SerialTaskQueue(VirtualThreadExecutorHolder.getExecutor());
+        }
+        WorkerExecutor workerExecutor = vertx.createSharedWorkerExecutor(SHARED_WORKER_POOL_NAME);
+        this.sharedWorkerExecutor = workerExecutor;
+        return new SerialTaskQueue(command -> workerExecutor.executeBlocking(() -> {
+            command.run();
+            return null;
+        }, false));
+    }
+
+    private void installSocketHandlers() {
+        if (writeBatchingMaxBytes > 0) {
+            // 批次须在套接字所在的上下文中写出，而非本封装类的工作者上下文；启用时已确认其存在
+            this.writeBatcher = new SocketWriteBatcher(
+                    Objects.requireNonNull(this.socketContext),
+                    writeBatchingMaxBytes,
+                    writeBatchingMaxDelayMillis,
+                    this::writeToSocket
+            );
+        }
+        this.socket
+                .handler(buffer -> {
+                    lastReadTime = System.currentTimeMillis();
+                    readPayloadSizes.record(buffer.length());
+                    PayloadLoggingPolicy policy = this.payloadLoggingPolicy;
+                    if (policy.shouldLog(readBufferCount++)) {
+                        getLogger().info(eventLog -> eventLog
+                                .message("READ BUFFER " + buffer.length() + " BYTES")
+                                .buffer(buffer, policy)
+                        );
+                    }
+
+                    dispatchBuffer(buffer);
+                })
+                .endHandler(end -> {
                     /*
                      Set an end handler.
                      Once the stream has ended, and there is no more data to be read,
@@ -63,10 +170,10 @@ abstract public class KeelAbstractSocketWrapper extends KeelVerticleBase {
                      This handler might be called after the close handler
                      when the socket is paused and there are still buffers to deliver.
                      */
-                                          getLogger().info(r -> r.message("READ TO END"));
-                                          whenReadToEnd();
-                                      })
-                                      .drainHandler(drain -> {
+                    getLogger().info(r -> r.message("READ TO END"));
+                    whenReadToEnd();
+                })
+                .drainHandler(drain -> {
                     /*
                     Set a drain handler on the stream.
                     If the write queue is full,
@@ -75,29 +182,130 @@ abstract public class KeelAbstractSocketWrapper extends KeelVerticleBase {
                     The stream implementation defines when the drain handler,
                     for example it could be when the queue size has been reduced to maxSize / 2.
                      */
-                                          getLogger().info(r -> r.message("BE WRITABLE AGAIN, RESUME"));
-                                          socket.resume();
-                                          whenDrain();
-                                      })
-                                      .closeHandler(close -> {
-                                          getLogger().info(r -> r.message("SOCKET CLOSE"));
-                                          this.undeployMe();
-                                          whenClose();
-                                      })
-                                      .exceptionHandler(throwable -> {
-                                          getLogger().error(r -> r.message("socket exception").exception(throwable));
-                                          whenExceptionOccurred(throwable);
-                                      });
-                              return Future.succeededFuture();
-                          });
+                    getLogger().info(r -> r.message("BE WRITABLE AGAIN, RESUME"));
+                    onWritable();
+                    whenDrain();
+                })
+                .closeHandler(close -> {
+                    getLogger().info(r -> r.message("SOCKET CLOSE"));
+                    if (attachedWithoutDeployment) {
+                        releaseSharedWorkerExecutor();
+                    } else {
+                        this.undeployMe();
+                    }
+                    whenClose();
+                    closeListeners.forEach(Runnable::run);
+                })
+                .exceptionHandler(throwable -> {
+                    getLogger().error(r -> r.message("socket exception").exception(throwable));
+                    whenExceptionOccurred(throwable);
+                });
+        // 接受连接时可能已暂停读取（参见 KeelTcpServer），处理器就绪后恢复
+        this.socket.resume();
+    }
+
+    private void dispatchBuffer(Buffer buffer) {
+        int size = buffer.length();
+        onInboundQueued(size);
+        Supplier<Future<Void>> task = () -> {
+            Future<Void> future;
+            try {
+                future = whenBufferComes(buffer);
+            } catch (Throwable throwable) {
+                future = Future.failedFuture(throwable);
+            }
+            return future.andThen(ar -> onInboundProcessed(size));
+        };
+        Funnel currentFunnel = this.funnel;
+        if (currentFunnel != null) {
+            currentFunnel.add(task::get);
+            return;
+        }
+        Objects.requireNonNull(this.taskQueue)
+               .submit(task)
+               .onFailure(throwable -> getLogger().error(r -> r
+                       .message("Failed to process incoming buffer")
+                       .exception(throwable)));
+    }
+
+    /**
+     * 在已提交的处理任务全部完成后，释放对共享工作者线程池的引用。
+     */
+    private void releaseSharedWorkerExecutor() {
+        WorkerExecutor workerExecutor = this.sharedWorkerExecutor;
+        SerialTaskQueue queue = this.taskQueue;
+        if (workerExecutor == null || queue == null) {
+            return;
+        }
+        this.sharedWorkerExecutor = null;
+        queue.submit(workerExecutor::close);
     }
 
     @Override
     protected Future<?> stopVerticle() {
-        return funnel.undeployMe()
-                     .compose(v -> {
-                         return super.stopVerticle();
-                     });
+        releaseSharedWorkerExecutor();
+        Funnel currentFunnel = this.funnel;
+        if (currentFunnel == null) {
+            return super.stopVerticle();
+        }
+        return currentFunnel.undeployMe()
+                            .compose(v -> {
+                                return super.stopVerticle();
+                            });
+    }
+
+    /**
+     * 设置入站数据的处理方式，须在部署或{@link #attach(Vertx)}之前调用。
+     *
+     * @param processingMode 处理方式，默认为{@link SocketProcessingMode#FUNNEL_WORKER}
+     * @throws IllegalStateException 选择了{@link SocketProcessingMode#VIRTUAL_THREAD}而运行时不支持虚拟线程
+     * @since 5.0.2
+     */
+    public KeelAbstractSocketWrapper setProcessingMode(SocketProcessingMode processingMode) {
+        if (processingMode == SocketProcessingMode.VIRTUAL_THREAD && !ReflectionUtils.isVirtualThreadsAvailable()) {
+            throw new IllegalStateException("Virtual threads are not available in this runtime");
+        }
+        this.processingMode = processingMode;
+        return this;
+    }
+
+    /**
+     * 设置读到的数据块的日志记录策略。
+     * <p>
+     * 默认为{@link PayloadLoggingPolicy#bounded()}，即记录每个数据块的长度与有限长度的十六进制内容；
+     * 数据量较大时可改用{@link PayloadLoggingPolicy#lengthOnly()}、{@link PayloadLoggingPolicy#sampledHex(int)}等策略。
+     *
+     * @since 5.0.2
+     */
+    public KeelAbstractSocketWrapper setPayloadLoggingPolicy(PayloadLoggingPolicy payloadLoggingPolicy) {
+        this.payloadLoggingPolicy = payloadLoggingPolicy;
+        return this;
+    }
+
+    public PayloadLoggingPolicy getPayloadLoggingPolicy() {
+        return payloadLoggingPolicy;
+    }
+
+    /**
+     * @return 读到的数据块大小的直方图，可据此确定帧缓冲等的大小
+     * @since 5.0.2
+     */
+    public PayloadSizeHistogram getReadPayloadSizes() {
+        return readPayloadSizes;
+    }
+
+    /**
+     * 登记套接字关闭时（在{@link #whenClose()}之后）执行的监听器，供本包内的服务器、注册表等组件使用；
+     * 须在部署或{@link #attach(Vertx)}之前调用。
+     *
+     * @since 5.0.2
+     */
+    void addCloseListener(Runnable closeListener) {
+        this.closeListeners.add(closeListener);
+    }
+
+    public SocketProcessingMode getProcessingMode() {
+        return processingMode;
     }
 
     public final SpecificLogger<SocketSpecificLog> getLogger() {
@@ -135,32 +343,257 @@ abstract public class KeelAbstractSocketWrapper extends KeelVerticleBase {
 
 
     public Future<Void> write(String s) {
-        Future<Void> future = this.socket.write(s);
-        if (this.socket.writeQueueFull()) {
-            this.socket.pause();
-            getLogger().info(r -> r.message("Write Queue Full, PAUSE"));
+        SocketWriteBatcher batcher = this.writeBatcher;
+        if (batcher != null) {
+            return batcher.write(Buffer.buffer(s));
         }
+        lastWriteTime = System.currentTimeMillis();
+        Future<Void> future = this.socket.write(s);
+        checkWriteQueue();
         return future;
     }
 
 
     public Future<Void> write(String s, String enc) {
-        Future<Void> future = this.socket.write(s, enc);
-        if (this.socket.writeQueueFull()) {
-            this.socket.pause();
-            getLogger().info(r -> r.message("Write Queue Full, PAUSE"));
+        SocketWriteBatcher batcher = this.writeBatcher;
+        if (batcher != null) {
+            return batcher.write(Buffer.buffer(s, enc));
         }
+        lastWriteTime = System.currentTimeMillis();
+        Future<Void> future = this.socket.write(s, enc);
+        checkWriteQueue();
         return future;
     }
 
 
     public Future<Void> write(Buffer buffer) {
+        SocketWriteBatcher batcher = this.writeBatcher;
+        if (batcher != null) {
+            return batcher.write(buffer);
+        }
+        return writeToSocket(buffer);
+    }
+
+    /**
+     * 将多段数据合并为一次写入。
+     * <p>
+     * 启用写入合并时，这些数据整体加入待发送批次；否则合并为一个数据块后立即写出，只检查一次写队列。
+     *
+     * @param buffers 按顺序写出的各段数据
+     * @return 写入结果
+     * @since 5.0.2
+     */
+    public Future<Void> writeAll(List<Buffer> buffers) {
+        SocketWriteBatcher batcher = this.writeBatcher;
+        if (batcher != null) {
+            return batcher.writeAll(buffers);
+        }
+        if (buffers.size() == 1) {
+            return writeToSocket(buffers.get(0));
+        }
+        int totalLength = 0;
+        for (Buffer buffer : buffers) {
+            totalLength += buffer.length();
+        }
+        Buffer merged = Buffer.buffer(totalLength);
+        for (Buffer buffer : buffers) {
+            merged.appendBuffer(buffer);
+        }
+        return writeToSocket(merged);
+    }
+
+    /**
+     * 立即写出写入合并模式下待发送的批次；未启用写入合并时无操作。
+     *
+     * @since 5.0.2
+     */
+    public Future<Void> flush() {
+        SocketWriteBatcher batcher = this.writeBatcher;
+        if (batcher == null) {
+            return Future.succeededFuture();
+        }
+        return batcher.flush();
+    }
+
+    /**
+     * 启用写入合并，须在部署或{@link #attach(Vertx)}之前调用。
+     * <p>
+     * 启用后，各{@code write}方法先将数据加入待发送批次，在当前事件循环轮次结束、延迟到期或批次达到字节数上限时合并写出，
+     * 以减少频繁发送小消息时的系统调用与刷新次数；同一批次的各次写入共享同一个写入结果。
+     * 关闭连接前会先写出待发送的批次。
+     * 批次在创建本封装类时所在的上下文（通常即连接处理器所在的事件循环上下文）中按顺序写出，
+     * 因此本封装类须在该上下文中创建。
+     *
+     * @param maxBatchBytes  批次字节数上限，达到时立即写出，须为正数
+     * @param maxDelayMillis 批次的最长等待毫秒数；为 0 时在当前事件循环轮次结束后写出
+     * @throws IllegalStateException 本封装类不是在 Vert.x 上下文中创建的，无法确定套接字所在的上下文
+     * @since 5.0.2
+     */
+    public KeelAbstractSocketWrapper enableWriteBatching(int maxBatchBytes, long maxDelayMillis) {
+        if (maxBatchBytes <= 0) {
+            throw new IllegalArgumentException("maxBatchBytes must be positive");
+        }
+        if (maxDelayMillis < 0) {
+            throw new IllegalArgumentException("maxDelayMillis must not be negative");
+        }
+        if (socketContext == null) {
+            throw new IllegalStateException("Write batching requires the socket wrapper to be created on the socket's context");
+        }
+        this.writeBatchingMaxBytes = maxBatchBytes;
+        this.writeBatchingMaxDelayMillis = maxDelayMillis;
+        return this;
+    }
+
+    private Future<Void> writeToSocket(Buffer buffer) {
+        lastWriteTime = System.currentTimeMillis();
         Future<Void> future = this.socket.write(buffer);
+        checkWriteQueue();
+        return future;
+    }
+
+    private void checkWriteQueue() {
         if (this.socket.writeQueueFull()) {
-            this.socket.pause();
+            synchronized (flowControlLock) {
+                if (!pausedForWrite) {
+                    pausedForWrite = true;
+                    this.socket.pause();
+                }
+            }
             getLogger().info(r -> r.message("Write Queue Full, PAUSE"));
         }
-        return future;
+    }
+
+    private void onWritable() {
+        synchronized (flowControlLock) {
+            pausedForWrite = false;
+            if (!pausedForRead) {
+                socket.resume();
+            }
+        }
+    }
+
+    private void onInboundQueued(int size) {
+        boolean paused = false;
+        synchronized (flowControlLock) {
+            pendingInboundBytes += size;
+            pendingInboundTasks++;
+            if (!pausedForRead
+                    && ((inboundHighWatermarkBytes > 0 && pendingInboundBytes >= inboundHighWatermarkBytes)
+                    || (inboundHighWatermarkTasks > 0 && pendingInboundTasks >= inboundHighWatermarkTasks))) {
+                pausedForRead = true;
+                paused = true;
+                this.socket.pause();
+            }
+        }
+        if (paused) {
+            getLogger().info(r -> r.message("Inbound Queue Above High Watermark, PAUSE"));
+        }
+    }
+
+    private void onInboundProcessed(int size) {
+        boolean resumed = false;
+        synchronized (flowControlLock) {
+            pendingInboundBytes -= size;
+            pendingInboundTasks--;
+            if (pausedForRead
+                    && (inboundHighWatermarkBytes <= 0 || pendingInboundBytes <= inboundLowWatermarkBytes)
+                    && (inboundHighWatermarkTasks <= 0 || pendingInboundTasks <= inboundLowWatermarkTasks)) {
+                pausedForRead = false;
+                if (!pausedForWrite) {
+                    resumed = true;
+                    this.socket.resume();
+                }
+            }
+        }
+        if (resumed) {
+            getLogger().info(r -> r.message("Inbound Queue At Low Watermark, RESUME"));
+        }
+    }
+
+    /**
+     * 设置入站数据的字节数水位线，须在部署或{@link #attach(Vertx)}之前调用。
+     * <p>
+     * 已读到但尚未处理完成的字节数达到高水位线时暂停读取，回落到低水位线时恢复，使处理较慢时内存占用有界。
+     *
+     * @param lowWatermarkBytes  低水位线
+     * @param highWatermarkBytes 高水位线，为 0 时不按字节数限制
+     * @since 5.0.2
+     */
+    public KeelAbstractSocketWrapper setInboundWatermarkBytes(long lowWatermarkBytes, long highWatermarkBytes) {
+        if (highWatermarkBytes < 0 || lowWatermarkBytes < 0 || (highWatermarkBytes > 0 && lowWatermarkBytes > highWatermarkBytes)) {
+            throw new IllegalArgumentException("Watermarks must satisfy 0 <= low <= high");
+        }
+        synchronized (flowControlLock) {
+            this.inboundLowWatermarkBytes = lowWatermarkBytes;
+            this.inboundHighWatermarkBytes = highWatermarkBytes;
+        }
+        return this;
+    }
+
+    /**
+     * 设置入站数据的任务数水位线，须在部署或{@link #attach(Vertx)}之前调用。
+     * <p>
+     * 已读到但尚未处理完成的数据块个数达到高水位线时暂停读取，回落到低水位线时恢复。
+     *
+     * @param lowWatermarkTasks  低水位线
+     * @param highWatermarkTasks 高水位线，为 0 时不按任务数限制
+     * @since 5.0.2
+     */
+    public KeelAbstractSocketWrapper setInboundWatermarkTasks(int lowWatermarkTasks, int highWatermarkTasks) {
+        if (highWatermarkTasks < 0 || lowWatermarkTasks < 0 || (highWatermarkTasks > 0 && lowWatermarkTasks > highWatermarkTasks)) {
+            throw new IllegalArgumentException("Watermarks must satisfy 0 <= low <= high");
+        }
+        synchronized (flowControlLock) {
+            this.inboundLowWatermarkTasks = lowWatermarkTasks;
+            this.inboundHighWatermarkTasks = highWatermarkTasks;
+        }
+        return this;
+    }
+
+    /**
+     * @return 已读到但尚未处理完成的字节数
+     * @since 5.0.2
+     */
+    public long getPendingInboundBytes() {
+        synchronized (flowControlLock) {
+            return pendingInboundBytes;
+        }
+    }
+
+    /**
+     * @return 已读到但尚未处理完成的数据块个数
+     * @since 5.0.2
+     */
+    public int getPendingInboundTasks() {
+        synchronized (flowControlLock) {
+            return pendingInboundTasks;
+        }
+    }
+
+    /**
+     * @return 最近一次读到数据的时间（毫秒时间戳）；尚未读到数据时为创建时间
+     * @since 5.0.2
+     */
+    public long getLastReadTime() {
+        return lastReadTime;
+    }
+
+    /**
+     * @return 最近一次向套接字写出数据的时间（毫秒时间戳）；尚未写出数据时为创建时间
+     * @since 5.0.2
+     */
+    public long getLastWriteTime() {
+        return lastWriteTime;
+    }
+
+    /**
+     * @return 读取是否因入站水位线或写队列已满而暂停
+     * @since 5.0.2
+     */
+    public boolean isReadPaused() {
+        synchronized (flowControlLock) {
+            return pausedForRead || pausedForWrite;
+        }
     }
 
 
@@ -189,7 +622,7 @@ abstract public class KeelAbstractSocketWrapper extends KeelVerticleBase {
 
 
     public Future<Void> close() {
-        return this.socket.close();
+        return flush().transform(ar -> this.socket.close());
     }
 
 
@@ -0,0 +1,80 @@
+package io.github.sinri.keel.web.tcp;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.net.NetSocket;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按帧处理入站数据的{@link NetSocket}封装类。
+ * <p>
+ * 读到的数据块先经{@link FrameDecoder}重组为完整帧，再按顺序逐帧交由{@link #whenFrameComes(Buffer)}处理；
+ * 上一帧的处理结果完成后才处理下一帧。
+ * 数据不符合帧格式时，调用{@link #whenFrameDecodingFailed(Throwable)}，默认关闭连接。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+abstract public class KeelFramedSocketWrapper extends KeelAbstractSocketWrapper {
+    private final FrameDecoder frameDecoder;
+
+    /**
+     * @param frameDecoder 本连接专用的帧解码器
+     */
+    public KeelFramedSocketWrapper(NetSocket socket, FrameDecoder frameDecoder) {
+        super(socket);
+        this.frameDecoder = frameDecoder;
+    }
+
+    /**
+     * @param frameDecoder 本连接专用的帧解码器
+     */
+    public KeelFramedSocketWrapper(NetSocket socket, String socketID, FrameDecoder frameDecoder) {
+        super(socket, socketID);
+        this.frameDecoder = frameDecoder;
+    }
+
+    @Override
+    protected final Future<Void> whenBufferComes(Buffer incomingBuffer) {
+        List<Buffer> frames = new ArrayList<>(4);
+        try {
+            frameDecoder.decode(incomingBuffer, frames::add);
+        } catch (Throwable throwable) {
+            getLogger().error(r -> r.message("Failed to decode frames").exception(throwable));
+            whenFrameDecodingFailed(throwable);
+            return Future.failedFuture(throwable);
+        }
+        Future<Void> future = Future.succeededFuture();
+        for (Buffer frame : frames) {
+            future = future.compose(v -> whenFrameComes(frame));
+        }
+        return future;
+    }
+
+    /**
+     * 处理一个完整帧。帧为接收缓冲的切片，不应修改其内容。
+     *
+     * @param frame 帧内容，不含帧头或分隔符
+     * @return 异步处理结果
+     */
+    abstract protected Future<Void> whenFrameComes(Buffer frame);
+
+    /**
+     * 数据不符合帧格式时调用，默认关闭连接。
+     *
+     * @param throwable 解码错误
+     */
+    protected void whenFrameDecodingFailed(Throwable throwable) {
+        close();
+    }
+
+    /**
+     * @return 已接收但尚未构成完整帧的字节数
+     */
+    public int getBufferedFrameBytes() {
+        return frameDecoder.bufferedBytes();
+    }
+}
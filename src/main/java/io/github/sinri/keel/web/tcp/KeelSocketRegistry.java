@@ -0,0 +1,207 @@
+package io.github.sinri.keel.web.tcp;
+
+import io.github.sinri.keel.web.utils.HashedTimerWheel;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * 活动套接字的注册表，按{@link KeelAbstractSocketWrapper#getSocketID()}索引，并负责关闭空闲连接。
+ * <p>
+ * 可分别设置读空闲、写空闲与读写均空闲的超时。每个套接字在{@link HashedTimerWheel}中只保留一个检查点：
+ * 读写时仅更新套接字封装类上的时间戳，检查点到期时再依据时间戳判断——已空闲超时则关闭连接，否则按最近活动时间重新登记。
+ * 因此每个刻度的开销只与到期的检查点数量相关，无需扫描全部套接字。
+ * <p>
+ * 时间轮及其检查限定在创建本注册表的 Vert.x 上下文中执行；登记、查询与广播可在任意线程中调用。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+public class KeelSocketRegistry {
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final Vertx vertx;
+    private final Context context;
+    private final long tickMillis;
+    private final Map<String, KeelAbstractSocketWrapper> sockets = new ConcurrentHashMap<>();
+    private final HashedTimerWheel<KeelAbstractSocketWrapper> timerWheel;
+    private final LongAdder idleClosedCount = new LongAdder();
+    private volatile long readIdleTimeoutMillis = 0;
+    private volatile long writeIdleTimeoutMillis = 0;
+    private volatile long allIdleTimeoutMillis = 0;
+    private long timerID = -1;
+
+    /**
+     * @param vertx      Vert.x 实例；时间轮在调用本构造方法时所在的上下文中运行
+     * @param tickMillis 空闲检查的精度（毫秒）
+     */
+    public KeelSocketRegistry(Vertx vertx, long tickMillis) {
+        this.vertx = vertx;
+        this.context = vertx.getOrCreateContext();
+        this.tickMillis = tickMillis;
+        this.timerWheel = new HashedTimerWheel<>(tickMillis, DEFAULT_WHEEL_SIZE, System.currentTimeMillis());
+    }
+
+    /**
+     * 设置空闲超时（毫秒），为 0 时不检查相应的空闲；须在{@link #start()}之前调用。
+     *
+     * @param readIdleTimeoutMillis  读空闲超时
+     * @param writeIdleTimeoutMillis 写空闲超时
+     * @param allIdleTimeoutMillis   读写均空闲的超时
+     */
+    public KeelSocketRegistry setIdleTimeouts(long readIdleTimeoutMillis, long writeIdleTimeoutMillis, long allIdleTimeoutMillis) {
+        if (readIdleTimeoutMillis < 0 || writeIdleTimeoutMillis < 0 || allIdleTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Idle timeouts must not be negative");
+        }
+        this.readIdleTimeoutMillis = readIdleTimeoutMillis;
+        this.writeIdleTimeoutMillis = writeIdleTimeoutMillis;
+        this.allIdleTimeoutMillis = allIdleTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * 开始周期性地推进时间轮。
+     */
+    public KeelSocketRegistry start() {
+        context.runOnContext(v -> {
+            if (timerID < 0) {
+                timerID = vertx.setPeriodic(tickMillis, id -> timerWheel.advance(System.currentTimeMillis(), this::checkIdle));
+            }
+        });
+        return this;
+    }
+
+    /**
+     * 停止空闲检查；已登记的套接字不受影响。
+     */
+    public void stop() {
+        context.runOnContext(v -> {
+            if (timerID >= 0) {
+                vertx.cancelTimer(timerID);
+                timerID = -1;
+            }
+        });
+    }
+
+    /**
+     * 登记套接字，关闭时自动注销；须在套接字封装类部署或{@link KeelAbstractSocketWrapper#attach(Vertx)}之前调用。
+     */
+    public void register(KeelAbstractSocketWrapper socketWrapper) {
+        String socketID = socketWrapper.getSocketID();
+        sockets.put(socketID, socketWrapper);
+        socketWrapper.addCloseListener(() -> sockets.remove(socketID, socketWrapper));
+        if (isIdleCheckEnabled()) {
+            context.runOnContext(v -> scheduleCheck(socketWrapper, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * 注销套接字，用于套接字封装类未能启动、关闭时的自动注销不会发生的情形。
+     *
+     * @return 是否注销了该套接字
+     */
+    public boolean unregister(KeelAbstractSocketWrapper socketWrapper) {
+        return sockets.remove(socketWrapper.getSocketID(), socketWrapper);
+    }
+
+    public @Nullable KeelAbstractSocketWrapper get(String socketID) {
+        return sockets.get(socketID);
+    }
+
+    /**
+     * @return 当前登记的套接字的只读视图
+     */
+    public Collection<KeelAbstractSocketWrapper> getSockets() {
+        return Collections.unmodifiableCollection(sockets.values());
+    }
+
+    /**
+     * @return 当前登记的套接字数
+     */
+    public int size() {
+        return sockets.size();
+    }
+
+    /**
+     * @return 因空闲超时而关闭的连接累计数
+     */
+    public long getIdleClosedCount() {
+        return idleClosedCount.sum();
+    }
+
+    /**
+     * 向全部登记的套接字写出同一个数据块；数据块在各连接间共享，不会被复制或修改。
+     *
+     * @return 写出的套接字数
+     */
+    public int broadcast(Buffer buffer) {
+        return broadcast(buffer, socketWrapper -> true);
+    }
+
+    /**
+     * 向满足条件的登记套接字写出同一个数据块。
+     *
+     * @return 写出的套接字数
+     */
+    public int broadcast(Buffer buffer, Predicate<KeelAbstractSocketWrapper> filter) {
+        int count = 0;
+        for (KeelAbstractSocketWrapper socketWrapper : sockets.values()) {
+            if (filter.test(socketWrapper)) {
+                socketWrapper.write(buffer);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean isIdleCheckEnabled() {
+        return readIdleTimeoutMillis > 0 || writeIdleTimeoutMillis > 0 || allIdleTimeoutMillis > 0;
+    }
+
+    private void checkIdle(KeelAbstractSocketWrapper socketWrapper) {
+        if (sockets.get(socketWrapper.getSocketID()) != socketWrapper) {
+            // 已关闭注销，丢弃检查点
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long lastRead = socketWrapper.getLastReadTime();
+        long lastWrite = socketWrapper.getLastWriteTime();
+        if ((readIdleTimeoutMillis > 0 && now - lastRead >= readIdleTimeoutMillis)
+                || (writeIdleTimeoutMillis > 0 && now - lastWrite >= writeIdleTimeoutMillis)
+                || (allIdleTimeoutMillis > 0 && now - Math.max(lastRead, lastWrite) >= allIdleTimeoutMillis)) {
+            idleClosedCount.increment();
+            socketWrapper.getLogger().info(r -> r.message("IDLE TIMEOUT, CLOSE"));
+            socketWrapper.close();
+            return;
+        }
+        scheduleCheck(socketWrapper, now);
+    }
+
+    private void scheduleCheck(KeelAbstractSocketWrapper socketWrapper, long now) {
+        long lastRead = socketWrapper.getLastReadTime();
+        long lastWrite = socketWrapper.getLastWriteTime();
+        long deadline = Long.MAX_VALUE;
+        if (readIdleTimeoutMillis > 0) {
+            deadline = Math.min(deadline, lastRead + readIdleTimeoutMillis);
+        }
+        if (writeIdleTimeoutMillis > 0) {
+            deadline = Math.min(deadline, lastWrite + writeIdleTimeoutMillis);
+        }
+        if (allIdleTimeoutMillis > 0) {
+            deadline = Math.min(deadline, Math.max(lastRead, lastWrite) + allIdleTimeoutMillis);
+        }
+        if (deadline == Long.MAX_VALUE) {
+            return;
+        }
+        timerWheel.schedule(socketWrapper, Math.max(deadline, now + 1));
+    }
+}
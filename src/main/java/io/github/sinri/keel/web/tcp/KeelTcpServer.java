@@ -0,0 +1,251 @@
+package io.github.sinri.keel.web.tcp;
+
+import io.github.sinri.keel.base.async.Keel;
+import io.github.sinri.keel.base.verticles.KeelVerticleBase;
+import io.github.sinri.keel.logger.api.factory.LoggerFactory;
+import io.github.sinri.keel.logger.api.logger.Logger;
+import io.github.sinri.keel.web.utils.EventLoops;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.NetServer;
+import io.vertx.core.net.NetServerOptions;
+import io.vertx.core.net.NetSocket;
+import io.vertx.core.shareddata.LocalMap;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Keel TCP 服务基础类。
+ * <p>
+ * 按配置创建{@link NetServer}，为每个接受的连接通过{@link #createSocketWrapper(NetSocket)}创建一个套接字封装类并启动。
+ * 同一服务可以部署多个实例（见{@link #deployInstances(Keel, Supplier, DeploymentOptions)}），
+ * 各实例监听同一端口，由 Vert.x 或（启用原生传输时）操作系统的 SO_REUSEPORT 在各事件循环之间分摊连接。
+ * <p>
+ * 各实例共享一份{@link KeelTcpServerMetrics}，据此实施活动连接数上限并统计接受速率。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+abstract public class KeelTcpServer extends KeelVerticleBase {
+    public static final String CONFIG_TCP_SERVER_PORT = "tcp_server_port";
+    public static final String CONFIG_TCP_SERVER_OPTIONS = "tcp_server_options";
+    public static final String CONFIG_TCP_SERVER_MAX_CONNECTIONS = "tcp_server_max_connections";
+    private static final int DEFAULT_TCP_SERVER_PORT = 9000;
+    private static final String METRICS_MAP_NAME = "keel.web.tcp.server.metrics";
+
+    protected @Nullable NetServer server;
+    private @Nullable Logger tcpServerLogger;
+    private @Nullable KeelTcpServerMetrics metrics;
+
+    public KeelTcpServer() {
+        super();
+    }
+
+    /**
+     * 以每个事件循环一个实例的方式部署服务，实例数为 Vert.x 实例实际配置的事件循环线程数。
+     *
+     * @param keel           Keel 实例
+     * @param serverSupplier 服务实例的提供者，每次调用应返回新实例
+     * @param config         服务配置
+     * @return 部署 ID
+     */
+    public static Future<String> deployInstances(Keel keel, Supplier<? extends KeelTcpServer> serverSupplier, JsonObject config) {
+        return deployInstances(keel, serverSupplier, new DeploymentOptions()
+                .setConfig(config)
+                .setInstances(EventLoops.getEventLoopPoolSize(keel)));
+    }
+
+    /**
+     * 按给定的部署选项（包括实例数）部署服务。
+     *
+     * @param keel              Keel 实例
+     * @param serverSupplier    服务实例的提供者，每次调用应返回新实例
+     * @param deploymentOptions 部署选项，实例数由{@link DeploymentOptions#setInstances(int)}指定
+     * @return 部署 ID
+     */
+    public static Future<String> deployInstances(Keel keel, Supplier<? extends KeelTcpServer> serverSupplier, DeploymentOptions deploymentOptions) {
+        return keel.deployVerticle(serverSupplier, deploymentOptions);
+    }
+
+    protected int getTcpServerPort() {
+        JsonObject config = this.config();
+        if (config == null) return DEFAULT_TCP_SERVER_PORT;
+        return config.getInteger(CONFIG_TCP_SERVER_PORT, DEFAULT_TCP_SERVER_PORT);
+    }
+
+    /**
+     * 未在配置中指定{@code reusePort}时默认启用，以便多个实例在原生传输下由内核分摊连接；
+     * 未在{@value #CONFIG_TCP_SERVER_OPTIONS}中指定{@code port}时使用{@link #getTcpServerPort()}。
+     */
+    protected NetServerOptions getNetServerOptions() {
+        JsonObject config = this.config();
+        if (config != null) {
+            JsonObject netServerOptions = config.getJsonObject(CONFIG_TCP_SERVER_OPTIONS);
+            if (netServerOptions != null) {
+                NetServerOptions options = new NetServerOptions(netServerOptions);
+                if (!netServerOptions.containsKey("reusePort")) {
+                    options.setReusePort(true);
+                }
+                if (!netServerOptions.containsKey("port")) {
+                    options.setPort(getTcpServerPort());
+                }
+                return options;
+            }
+        }
+        return new NetServerOptions().setPort(getTcpServerPort()).setReusePort(true);
+    }
+
+    /**
+     * @return 全部实例合计的活动连接数上限，不大于 0 时不限制
+     */
+    protected int getMaxConnections() {
+        JsonObject config = this.config();
+        if (config == null) return 0;
+        return config.getInteger(CONFIG_TCP_SERVER_MAX_CONNECTIONS, 0);
+    }
+
+    /**
+     * @return 服务名称，同名的各实例共享同一份指标；默认为类名
+     */
+    protected String getTcpServerName() {
+        return getClass().getName();
+    }
+
+    /**
+     * 为新接受的连接创建套接字封装类，可在其中设置处理方式、日志策略、水位线等。
+     *
+     * @param socket 新接受的连接
+     * @return 套接字封装类
+     */
+    protected abstract KeelAbstractSocketWrapper createSocketWrapper(NetSocket socket);
+
+    /**
+     * 启动套接字封装类：{@link SocketProcessingMode#FUNNEL_WORKER}模式下部署为 verticle，其他模式下直接{@link
+     * KeelAbstractSocketWrapper#attach(io.vertx.core.Vertx)}。
+     */
+    protected Future<Void> startSocketWrapper(KeelAbstractSocketWrapper socketWrapper) {
+        if (socketWrapper.getProcessingMode() == SocketProcessingMode.FUNNEL_WORKER) {
+            return socketWrapper.deployMe(getKeel(), new DeploymentOptions()).mapEmpty();
+        }
+        socketWrapper.attach(getKeel());
+        return Future.succeededFuture();
+    }
+
+    /**
+     * @return 登记本服务所接受连接的注册表，如需枚举连接、广播或关闭空闲连接；默认为{@code null}，即不登记
+     * @since 5.0.2
+     */
+    protected @Nullable KeelSocketRegistry getSocketRegistry() {
+        return null;
+    }
+
+    protected Future<Void> beforeStartServer() {
+        return Future.succeededFuture();
+    }
+
+    protected Future<Void> afterShutdownServer() {
+        return Future.succeededFuture();
+    }
+
+    @Override
+    protected Future<Void> startVerticle() {
+        this.tcpServerLogger = LoggerFactory.getShared().createLogger("KeelTcpServer");
+        this.metrics = getOrCreateMetrics();
+
+        NetServer server = getKeel().createNetServer(getNetServerOptions());
+        this.server = server;
+
+        return beforeStartServer()
+                .compose(v0 -> server
+                        .connectHandler(this::acceptSocket)
+                        .exceptionHandler(throwable -> getTcpServerLogger().error(r -> r.message("KeelTcpServer Exception")
+                                                                                        .exception(throwable)))
+                        .listen()
+                        .compose(netServer -> {
+                            int actualPort = netServer.actualPort();
+                            getTcpServerLogger().info(r -> r.message("TCP Server Established, Actual Port: " + actualPort));
+                            return Future.succeededFuture();
+                        }, throwable -> {
+                            getTcpServerLogger().error(r -> r.message("Listen failed")
+                                                             .exception(throwable));
+                            return Future.failedFuture(throwable);
+                        }));
+    }
+
+    private void acceptSocket(NetSocket socket) {
+        // 套接字封装类可能异步启动，其间到达的数据须暂存，待其安装处理器后恢复读取
+        socket.pause();
+        KeelTcpServerMetrics serverMetrics = getMetrics();
+        if (!serverMetrics.tryAccept(getMaxConnections())) {
+            socket.close();
+            return;
+        }
+        KeelAbstractSocketWrapper socketWrapper;
+        try {
+            socketWrapper = createSocketWrapper(socket);
+        } catch (Throwable throwable) {
+            serverMetrics.release();
+            getTcpServerLogger().error(r -> r.message("Failed to create socket wrapper").exception(throwable));
+            socket.close();
+            return;
+        }
+        socketWrapper.addCloseListener(serverMetrics::release);
+        KeelSocketRegistry socketRegistry = getSocketRegistry();
+        if (socketRegistry != null) {
+            socketRegistry.register(socketWrapper);
+        }
+        startSocketWrapper(socketWrapper)
+                .onFailure(throwable -> {
+                    getTcpServerLogger().error(r -> r.message("Failed to start socket wrapper").exception(throwable));
+                    // 封装类的关闭处理器未安装，须在此释放连接名额并注销
+                    serverMetrics.release();
+                    if (socketRegistry != null) {
+                        socketRegistry.unregister(socketWrapper);
+                    }
+                    socket.close();
+                });
+    }
+
+    private KeelTcpServerMetrics getOrCreateMetrics() {
+        LocalMap<String, KeelTcpServerMetrics> metricsMap = getKeel().sharedData().getLocalMap(METRICS_MAP_NAME);
+        KeelTcpServerMetrics created = new KeelTcpServerMetrics();
+        KeelTcpServerMetrics existing = metricsMap.putIfAbsent(getTcpServerName(), created);
+        return existing != null ? existing : created;
+    }
+
+    /**
+     * @return 本服务各实例共享的连接指标
+     */
+    public final KeelTcpServerMetrics getMetrics() {
+        return Objects.requireNonNull(metrics);
+    }
+
+    public final Logger getTcpServerLogger() {
+        return Objects.requireNonNull(tcpServerLogger);
+    }
+
+    @Override
+    protected Future<Void> stopVerticle() {
+        if (server == null) return Future.succeededFuture();
+        return server.close()
+                     .compose(v -> {
+                         getTcpServerLogger().info(r -> r.message("TCP Server Closed"));
+                         return afterShutdownServer()
+                                 .recover(throwable2 -> {
+                                     getTcpServerLogger().error(r -> r
+                                             .message("afterShutdownServer failed: %s".formatted(throwable2.getMessage()))
+                                             .exception(throwable2));
+                                     return Future.succeededFuture();
+                                 });
+                     }, throwable -> {
+                         getTcpServerLogger().error(r -> r
+                                 .message("TCP Server Closing Failure: %s".formatted(throwable.getMessage()))
+                                 .exception(throwable));
+                         return Future.failedFuture(throwable);
+                     });
+    }
+}
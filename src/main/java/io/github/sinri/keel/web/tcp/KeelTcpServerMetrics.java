@@ -0,0 +1,101 @@
+package io.github.sinri.keel.web.tcp;
+
+import io.vertx.core.shareddata.Shareable;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TCP 服务的连接指标，由同一服务的各实例共享。
+ * <p>
+ * 记录累计接受与拒绝的连接数、当前活动连接数，以及最近若干秒内的平均接受速率。
+ * 实现了{@link Shareable}，以便通过本地共享数据在同一 Vert.x 实例内的各服务实例之间共享而不被复制。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+public final class KeelTcpServerMetrics implements Shareable {
+    /**
+     * 计算接受速率所用的时间窗口秒数。
+     */
+    public static final int ACCEPT_RATE_WINDOW_SECONDS = 10;
+    private static final int BUCKET_COUNT = ACCEPT_RATE_WINDOW_SECONDS + 1;
+
+    private final LongAdder acceptedConnections = new LongAdder();
+    private final LongAdder rejectedConnections = new LongAdder();
+    private final AtomicLong activeConnections = new AtomicLong();
+    private final AtomicLongArray bucketSeconds = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_COUNT);
+
+    KeelTcpServerMetrics() {
+    }
+
+    /**
+     * 在连接数上限内占用一个活动连接名额。
+     *
+     * @param maxConnections 活动连接数上限，不大于 0 时不限制
+     * @return 是否接受该连接；不接受时计为拒绝
+     */
+    boolean tryAccept(int maxConnections) {
+        while (true) {
+            long active = activeConnections.get();
+            if (maxConnections > 0 && active >= maxConnections) {
+                rejectedConnections.increment();
+                return false;
+            }
+            if (activeConnections.compareAndSet(active, active + 1)) {
+                break;
+            }
+        }
+        acceptedConnections.increment();
+        long second = System.currentTimeMillis() / 1000;
+        int index = (int) (second % BUCKET_COUNT);
+        long stamp = bucketSeconds.get(index);
+        if (stamp != second && bucketSeconds.compareAndSet(index, stamp, second)) {
+            bucketCounts.set(index, 0);
+        }
+        bucketCounts.incrementAndGet(index);
+        return true;
+    }
+
+    void release() {
+        activeConnections.decrementAndGet();
+    }
+
+    public long getAcceptedConnections() {
+        return acceptedConnections.sum();
+    }
+
+    public long getRejectedConnections() {
+        return rejectedConnections.sum();
+    }
+
+    public long getActiveConnections() {
+        return activeConnections.get();
+    }
+
+    /**
+     * @return 最近{@value #ACCEPT_RATE_WINDOW_SECONDS}个完整秒内平均每秒接受的连接数
+     */
+    public double getAcceptRatePerSecond() {
+        long currentSecond = System.currentTimeMillis() / 1000;
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long stamp = bucketSeconds.get(i);
+            if (stamp < currentSecond && stamp >= currentSecond - ACCEPT_RATE_WINDOW_SECONDS) {
+                total += bucketCounts.get(i);
+            }
+        }
+        return (double) total / ACCEPT_RATE_WINDOW_SECONDS;
+    }
+
+    @Override
+    public String toString() {
+        return "KeelTcpServerMetrics{accepted=" + getAcceptedConnections()
+                + ", rejected=" + getRejectedConnections()
+                + ", active=" + getActiveConnections()
+                + ", acceptRatePerSecond=" + getAcceptRatePerSecond() + "}";
+    }
+}
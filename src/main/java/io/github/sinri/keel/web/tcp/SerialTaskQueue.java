@@ -0,0 +1,77 @@
+package io.github.sinri.keel.web.tcp;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * 在共享执行器上按提交顺序逐个执行异步任务的队列。
+ * <p>
+ * 任务在执行器的线程上启动，其返回的异步结果完成后才启动下一个任务；
+ * 因此多个队列可以共享同一个执行器，而各队列内部的任务严格串行。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+final class SerialTaskQueue {
+    private final Executor executor;
+    private final ArrayDeque<Runnable> pendingTasks = new ArrayDeque<>();
+    private boolean running = false;
+
+    SerialTaskQueue(Executor executor) {
+        this.executor = executor;
+    }
+
+    Future<Void> submit(Supplier<Future<Void>> task) {
+        Promise<Void> promise = Promise.promise();
+        Runnable runnable = () -> {
+            Future<Void> future;
+            try {
+                future = task.get();
+            } catch (Throwable throwable) {
+                future = Future.failedFuture(throwable);
+            }
+            future.onComplete(ar -> {
+                try {
+                    promise.handle(ar);
+                } finally {
+                    runNext();
+                }
+            });
+        };
+        synchronized (this) {
+            if (running) {
+                pendingTasks.add(runnable);
+                return promise.future();
+            }
+            running = true;
+        }
+        execute(runnable);
+        return promise.future();
+    }
+
+    private void runNext() {
+        Runnable next;
+        synchronized (this) {
+            next = pendingTasks.poll();
+            if (next == null) {
+                running = false;
+                return;
+            }
+        }
+        execute(next);
+    }
+
+    private void execute(Runnable runnable) {
+        try {
+            executor.execute(runnable);
+        } catch (Throwable throwable) {
+            // 执行器已不可用时，在当前线程执行，保证队列不会停滞
+            runnable.run();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.sinri.keel.web.tcp;
+
+import io.github.sinri.keel.core.servant.funnel.Funnel;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * 套接字封装类处理入站数据的执行方式。
+ * <p>
+ * 各方式下，同一套接字的入站数据均按到达顺序逐个处理：上一段数据的处理结果完成后才开始处理下一段。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+public enum SocketProcessingMode {
+    /**
+     * 为每个套接字部署一个{@link Funnel}工作者 verticle 进行处理（原有行为）。
+     */
+    FUNNEL_WORKER,
+    /**
+     * 在全部套接字共用的 Vert.x 工作者线程池上处理，每个套接字维护一个有序任务队列，无需额外部署 verticle。
+     */
+    SHARED_POOL,
+    /**
+     * 在虚拟线程上处理，每个套接字维护一个有序任务队列，无需额外部署 verticle；仅在运行时支持虚拟线程时可用。
+     */
+    VIRTUAL_THREAD
+}
@@ -1,9 +1,9 @@
 package io.github.sinri.keel.web.tcp;
 
-import io.github.sinri.keel.core.utils.BinaryUtils;
 import io.github.sinri.keel.logger.api.log.SpecificLog;
+import io.github.sinri.keel.web.logging.BinaryPayloadLogFormatter;
+import io.github.sinri.keel.web.logging.PayloadLoggingPolicy;
 import io.vertx.core.buffer.Buffer;
-import io.vertx.core.json.JsonObject;
 import org.jspecify.annotations.NullMarked;
 
 
@@ -20,11 +20,21 @@ public final class SocketSpecificLog extends SpecificLog<SocketSpecificLog> {
         super();
     }
 
+    /**
+     * 按{@link BinaryPayloadLogFormatter#defaultFormatter()}有界地记录数据块。
+     */
     public SocketSpecificLog buffer(Buffer buffer) {
-        this.context("buffer", new JsonObject()
-                .put("buffer_content", BinaryUtils.encodeHexWithUpperDigits(buffer))
-                .put("buffer_size", buffer.length())
-        );
+        this.context("buffer", BinaryPayloadLogFormatter.defaultFormatter().describe(buffer));
+        return this;
+    }
+
+    /**
+     * 按给定的负载日志记录策略记录数据块。
+     *
+     * @since 5.0.2
+     */
+    public SocketSpecificLog buffer(Buffer buffer, PayloadLoggingPolicy policy) {
+        this.context("buffer", policy.describe(buffer));
         return this;
     }
 }
@@ -0,0 +1,156 @@
+package io.github.sinri.keel.web.tcp;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 合并写入的批处理器。
+ * <p>
+ * 写入的数据先追加到待发送批次中，在以下任一时机合并为一次写入：
+ * 批次字节数达到上限；或者，未设置延迟时在当前事件循环轮次结束后（即在套接字上下文中排队执行的下一个任务中），
+ * 设置了延迟时在延迟到期时。同一批次中的各次写入共享同一个异步结果。
+ * <p>
+ * 可在任意线程上调用。封好的批次按顺序进入发送队列，且只在套接字所在的上下文中逐个交给下游写出，
+ * 因此不同线程上的写入与计时触发的写出不会使字节流乱序。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+final class SocketWriteBatcher {
+    private final Context context;
+    private final int maxBatchBytes;
+    private final long maxDelayMillis;
+    private final Function<Buffer, Future<Void>> sink;
+
+    private @Nullable Buffer pendingBatch;
+    private @Nullable Promise<Void> pendingPromise;
+    private boolean flushScheduled = false;
+    /**
+     * 已封好、等待在套接字上下文中写出的批次，按封批顺序排列。
+     */
+    private final ArrayDeque<SealedBatch> sealedBatches = new ArrayDeque<>();
+    private boolean drainScheduled = false;
+
+    /**
+     * @param context 套接字所在的上下文，下游写出均在此上下文中进行
+     */
+    SocketWriteBatcher(Context context, int maxBatchBytes, long maxDelayMillis, Function<Buffer, Future<Void>> sink) {
+        this.context = context;
+        this.maxBatchBytes = maxBatchBytes;
+        this.maxDelayMillis = maxDelayMillis;
+        this.sink = sink;
+    }
+
+    Future<Void> write(Buffer buffer) {
+        return writeAll(List.of(buffer));
+    }
+
+    Future<Void> writeAll(List<Buffer> buffers) {
+        boolean sealed = false;
+        boolean scheduleFlush = false;
+        Future<Void> result;
+        synchronized (this) {
+            if (pendingBatch == null || pendingPromise == null) {
+                pendingBatch = Buffer.buffer(Math.min(maxBatchBytes, 4096));
+                pendingPromise = Promise.promise();
+            }
+            for (Buffer buffer : buffers) {
+                pendingBatch.appendBuffer(buffer);
+            }
+            result = pendingPromise.future();
+            if (pendingBatch.length() >= maxBatchBytes) {
+                sealPendingBatch();
+                sealed = true;
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                scheduleFlush = true;
+            }
+        }
+        if (sealed) {
+            drainSealedBatches();
+        } else if (scheduleFlush) {
+            if (maxDelayMillis > 0) {
+                context.owner().setTimer(maxDelayMillis, timerID -> flush());
+            } else {
+                context.runOnContext(v -> flush());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 立即写出待发送批次。
+     *
+     * @return 该批次的写入结果；无待发送数据时为成功的结果
+     */
+    Future<Void> flush() {
+        Future<Void> result;
+        synchronized (this) {
+            flushScheduled = false;
+            if (pendingBatch == null || pendingPromise == null) {
+                return Future.succeededFuture();
+            }
+            result = pendingPromise.future();
+            sealPendingBatch();
+        }
+        drainSealedBatches();
+        return result;
+    }
+
+    synchronized int pendingBytes() {
+        int bytes = pendingBatch == null ? 0 : pendingBatch.length();
+        for (SealedBatch sealedBatch : sealedBatches) {
+            bytes += sealedBatch.buffer().length();
+        }
+        return bytes;
+    }
+
+    /**
+     * 将待发送批次封好并放入发送队列，须持有本对象的锁。
+     */
+    private void sealPendingBatch() {
+        sealedBatches.add(new SealedBatch(Objects.requireNonNull(pendingBatch), Objects.requireNonNull(pendingPromise)));
+        pendingBatch = null;
+        pendingPromise = null;
+    }
+
+    /**
+     * 在套接字上下文中按顺序写出发送队列中的批次；不在该上下文中时，排队到该上下文中执行。
+     */
+    private void drainSealedBatches() {
+        if (Vertx.currentContext() != context) {
+            synchronized (this) {
+                if (drainScheduled) {
+                    return;
+                }
+                drainScheduled = true;
+            }
+            context.runOnContext(v -> drainSealedBatches());
+            return;
+        }
+        while (true) {
+            SealedBatch sealedBatch;
+            synchronized (this) {
+                drainScheduled = false;
+                sealedBatch = sealedBatches.poll();
+            }
+            if (sealedBatch == null) {
+                return;
+            }
+            sink.apply(sealedBatch.buffer()).onComplete(sealedBatch.promise());
+        }
+    }
+
+    private record SealedBatch(Buffer buffer, Promise<Void> promise) {
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.sinri.keel.web.udp;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.net.SocketAddress;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * 收到的一个数据报。
+ *
+ * @param sender 发送方地址
+ * @param data   数据
+ * @since 5.0.2
+ */
+@NullMarked
+public record Datagram(SocketAddress sender, Buffer data) {
+}
@@ -1,7 +1,8 @@
 package io.github.sinri.keel.web.udp;
 
-import io.github.sinri.keel.core.utils.BinaryUtils;
 import io.github.sinri.keel.logger.api.log.SpecificLog;
+import io.github.sinri.keel.web.logging.BinaryPayloadLogFormatter;
+import io.github.sinri.keel.web.logging.PayloadLoggingPolicy;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 import org.jspecify.annotations.NullMarked;
@@ -26,18 +27,48 @@ public final class DatagramSpecificLog extends SpecificLog<DatagramSpecificLog>
                     .put("address", address)
                     .put("port", port)
             )
-            .context("buffer", new JsonObject()
-                    .put("buffer_content", BinaryUtils.encodeHexWithUpperDigits(buffer))
-                    .put("buffer_size", buffer.length())
-            );
+            .context("buffer", BinaryPayloadLogFormatter.defaultFormatter().describe(buffer));
         return this;
     }
 
+    private DatagramSpecificLog buffer(Buffer buffer, String address, int port, String action, PayloadLoggingPolicy policy) {
+        this.context(action, new JsonObject()
+                    .put("address", address)
+                    .put("port", port)
+            )
+            .context("buffer", policy.describe(buffer));
+        return this;
+    }
+
+    /**
+     * 按{@link BinaryPayloadLogFormatter#defaultFormatter()}有界地记录发出的数据报。
+     */
     public DatagramSpecificLog bufferSent(Buffer buffer, String address, int port) {
         return this.buffer(buffer, address, port, "sent_to");
     }
 
+    /**
+     * 按{@link BinaryPayloadLogFormatter#defaultFormatter()}有界地记录收到的数据报。
+     */
     public DatagramSpecificLog bufferReceived(Buffer buffer, String address, int port) {
         return this.buffer(buffer, address, port, "received_from");
     }
+
+    /**
+     * 按给定的负载日志记录策略记录发出的数据报。
+     *
+     * @since 5.0.2
+     */
+    public DatagramSpecificLog bufferSent(Buffer buffer, String address, int port, PayloadLoggingPolicy policy) {
+        return this.buffer(buffer, address, port, "sent_to", policy);
+    }
+
+    /**
+     * 按给定的负载日志记录策略记录收到的数据报。
+     *
+     * @since 5.0.2
+     */
+    public DatagramSpecificLog bufferReceived(Buffer buffer, String address, int port, PayloadLoggingPolicy policy) {
+        return this.buffer(buffer, address, port, "received_from", policy);
+    }
 }
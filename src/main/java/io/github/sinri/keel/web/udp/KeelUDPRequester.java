@@ -0,0 +1,362 @@
+package io.github.sinri.keel.web.udp;
+
+import io.github.sinri.keel.web.utils.HashedTimerWheel;
+import io.github.sinri.keel.web.utils.LongOpenHashMap;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.net.SocketAddress;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+
+/**
+ * 基于{@link KeelUDPTransceiver}的请求-响应关联层。
+ * <p>
+ * 每个请求数据报以 8 字节（大端序）的关联 ID 开头，后接请求内容；对端以同一关联 ID 开头的数据报作为响应
+ * （对端可用{@link #respond(SocketAddress, long, Buffer)}构造）。
+ * 在途请求存放在以关联 ID 为键的{@link LongOpenHashMap}中，超时与重传由一个{@link HashedTimerWheel}统一驱动，
+ * 不为每个请求单独设置 Vert.x 定时器。
+ * <p>
+ * 请求在{@link #setTimeout(long, int)}给定的总超时内均分为若干次尝试，每次尝试到期仍未收到响应时重发，
+ * 全部尝试到期后以{@link TimeoutException}失败。
+ * 关联 ID 随机生成，且只有来自请求目标地址与端口的数据报才被当作响应，以免响应被轻易伪造；
+ * 目标为主机名时先解析（结果按一定时间缓存），请求发往解析得到的地址并以之校验响应方。
+ * 关联 ID 不匹配任何在途请求或发送方不符的数据报（如对端发来的请求）交给{@link #setUnmatchedDatagramConsumer(BiConsumer)}设置的处理器。
+ * <p>
+ * 须先调用{@link #start()}，否则请求立即以{@link IllegalStateException}失败。
+ * <p>
+ * 除计数器外，全部状态仅在构造时所在的上下文中访问；其他线程发起的请求会被转交到该上下文。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+public class KeelUDPRequester {
+    /**
+     * 关联 ID 的字节数。
+     */
+    public static final int CORRELATION_ID_LENGTH = 8;
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final Vertx vertx;
+    private final Context context;
+    private final KeelUDPTransceiver transceiver;
+    private final long tickMillis;
+    private final HashedTimerWheel<InFlightRequest> timerWheel;
+    private final LongOpenHashMap<InFlightRequest> inFlightRequests = new LongOpenHashMap<>(1024);
+    private final SecureRandom correlationIdRandom = new SecureRandom();
+    private final UDPHostResolver hostResolver;
+    private long requestTimeoutMillis = 3000L;
+    private int maxRetransmits = 2;
+    private BiConsumer<SocketAddress, Buffer> unmatchedDatagramConsumer = (sender, buffer) -> {
+        // do nothing
+    };
+    private long timerID = -1;
+    private volatile boolean started = false;
+    private volatile int inFlightCount = 0;
+    private volatile long retransmittedCount = 0;
+    private volatile long timedOutCount = 0;
+    private volatile long unmatchedCount = 0;
+
+    /**
+     * @param vertx       Vert.x 实例；请求状态限定在调用本构造方法时所在的上下文中
+     * @param transceiver 传输器，其数据报处理器将被本类接管
+     * @param tickMillis  超时与重传的精度（毫秒）
+     */
+    public KeelUDPRequester(Vertx vertx, KeelUDPTransceiver transceiver, long tickMillis) {
+        this.vertx = vertx;
+        this.context = vertx.getOrCreateContext();
+        this.transceiver = transceiver;
+        this.tickMillis = tickMillis;
+        this.timerWheel = new HashedTimerWheel<>(tickMillis, DEFAULT_WHEEL_SIZE, System.currentTimeMillis());
+        this.hostResolver = new UDPHostResolver(context);
+    }
+
+    /**
+     * 设置请求的总超时与最多重传次数；须在{@link #start()}之前调用。
+     *
+     * @param requestTimeoutMillis 总超时（毫秒），在{@code maxRetransmits + 1}次尝试之间均分
+     * @param maxRetransmits       最多重传次数，为 0 时不重传
+     */
+    public KeelUDPRequester setTimeout(long requestTimeoutMillis, int maxRetransmits) {
+        if (requestTimeoutMillis <= 0 || maxRetransmits < 0) {
+            throw new IllegalArgumentException("requestTimeoutMillis must be positive and maxRetransmits must not be negative");
+        }
+        this.requestTimeoutMillis = requestTimeoutMillis;
+        this.maxRetransmits = maxRetransmits;
+        return this;
+    }
+
+    /**
+     * 设置关联 ID 不匹配任何在途请求的数据报的处理器，处理器收到的是完整的数据报（含关联 ID）。
+     */
+    public KeelUDPRequester setUnmatchedDatagramConsumer(BiConsumer<SocketAddress, Buffer> unmatchedDatagramConsumer) {
+        this.unmatchedDatagramConsumer = Objects.requireNonNull(unmatchedDatagramConsumer);
+        return this;
+    }
+
+    /**
+     * 接管传输器的数据报处理器，并开始周期性地推进时间轮；传输器须另行{@link KeelUDPTransceiver#listen()}。
+     */
+    public KeelUDPRequester start() {
+        transceiver.setDatagramSocketConsumer(this::onDatagram);
+        started = true;
+        context.runOnContext(v -> ensureTimerStarted());
+        return this;
+    }
+
+    private void ensureTimerStarted() {
+        if (timerID < 0) {
+            timerID = vertx.setPeriodic(tickMillis, id -> timerWheel.advance(System.currentTimeMillis(), this::onAttemptExpired));
+        }
+    }
+
+    /**
+     * 停止时间轮，并以{@link IllegalStateException}使全部在途请求失败。
+     */
+    public Future<Void> stop() {
+        Promise<Void> promise = Promise.promise();
+        started = false;
+        context.runOnContext(v -> {
+            if (timerID >= 0) {
+                vertx.cancelTimer(timerID);
+                timerID = -1;
+            }
+            List<InFlightRequest> requests = new ArrayList<>(inFlightRequests.size());
+            inFlightRequests.forEach((correlationId, request) -> requests.add(request));
+            inFlightRequests.clear();
+            inFlightCount = 0;
+            for (InFlightRequest request : requests) {
+                cancelTimeout(request);
+                request.promise.tryFail(new IllegalStateException("KeelUDPRequester stopped"));
+            }
+            promise.complete();
+        });
+        return promise.future();
+    }
+
+    /**
+     * 发送请求并等待响应。
+     *
+     * @param payload       请求内容，不含关联 ID
+     * @param targetPort    目标端口
+     * @param targetAddress 目标地址
+     * @return 响应内容（不含关联 ID）；超时未收到响应时以{@link TimeoutException}失败，尚未{@link #start()}时以
+     *         {@link IllegalStateException}失败
+     */
+    public Future<Buffer> request(Buffer payload, int targetPort, String targetAddress) {
+        Promise<Buffer> promise = Promise.promise();
+        if (Vertx.currentContext() == context) {
+            startRequest(payload, targetPort, targetAddress, promise);
+        } else {
+            context.runOnContext(v -> startRequest(payload, targetPort, targetAddress, promise));
+        }
+        return promise.future();
+    }
+
+    /**
+     * 以{@code correlationId}回应对端的请求。
+     *
+     * @param requester     请求方地址
+     * @param correlationId 请求的关联 ID，可由{@link #readCorrelationId(Buffer)}读取
+     * @param payload       响应内容，不含关联 ID
+     */
+    public Future<Void> respond(SocketAddress requester, long correlationId, Buffer payload) {
+        return transceiver.send(encode(correlationId, payload), requester.port(), requester.hostAddress());
+    }
+
+    /**
+     * @return 数据报开头的关联 ID
+     * @throws IndexOutOfBoundsException 数据报短于{@value #CORRELATION_ID_LENGTH}字节时
+     */
+    public static long readCorrelationId(Buffer datagram) {
+        return datagram.getLong(0);
+    }
+
+    /**
+     * @return 数据报中关联 ID 之后的内容（共享底层存储）
+     */
+    public static Buffer readPayload(Buffer datagram) {
+        return datagram.slice(CORRELATION_ID_LENGTH, datagram.length());
+    }
+
+    /**
+     * @return 以关联 ID 开头、后接{@code payload}的数据报
+     */
+    public static Buffer encode(long correlationId, Buffer payload) {
+        return Buffer.buffer(CORRELATION_ID_LENGTH + payload.length())
+                     .appendLong(correlationId)
+                     .appendBuffer(payload);
+    }
+
+    /**
+     * @return 在途请求数
+     */
+    public int getInFlightCount() {
+        return inFlightCount;
+    }
+
+    public long getRetransmittedCount() {
+        return retransmittedCount;
+    }
+
+    public long getTimedOutCount() {
+        return timedOutCount;
+    }
+
+    /**
+     * @return 关联 ID 不匹配任何在途请求的数据报数
+     */
+    public long getUnmatchedCount() {
+        return unmatchedCount;
+    }
+
+    private void startRequest(Buffer payload, int targetPort, String targetHost, Promise<Buffer> promise) {
+        if (!started) {
+            promise.fail(new IllegalStateException("KeelUDPRequester is not started"));
+            return;
+        }
+        ensureTimerStarted();
+        String targetAddress = hostResolver.resolveCached(targetHost);
+        if (targetAddress != null) {
+            startRequestToAddress(payload, targetPort, targetAddress, promise);
+            return;
+        }
+        hostResolver.resolve(targetHost)
+                    .onSuccess(resolved -> startRequestToAddress(payload, targetPort, resolved, promise))
+                    .onFailure(promise::tryFail);
+    }
+
+    private void startRequestToAddress(Buffer payload, int targetPort, String targetAddress, Promise<Buffer> promise) {
+        long correlationId = allocateCorrelationId();
+        InFlightRequest request = new InFlightRequest(correlationId, encode(correlationId, payload),
+                targetPort, targetAddress, promise, maxRetransmits + 1);
+        inFlightRequests.put(correlationId, request);
+        inFlightCount = inFlightRequests.size();
+        sendAttempt(request);
+    }
+
+    private long allocateCorrelationId() {
+        long correlationId;
+        do {
+            correlationId = correlationIdRandom.nextLong();
+        } while (correlationId == 0 || inFlightRequests.get(correlationId) != null);
+        return correlationId;
+    }
+
+    private void sendAttempt(InFlightRequest request) {
+        request.remainingAttempts--;
+        long attemptTimeout = Math.max(1, requestTimeoutMillis / (maxRetransmits + 1));
+        request.timeout = timerWheel.schedule(request, System.currentTimeMillis() + attemptTimeout);
+        transceiver.send(request.datagram, request.targetPort, request.targetAddress)
+                   .onFailure(throwable -> {
+                       // 发送结果在套接字或发送管线的上下文中完成，须回到本实例的上下文处理
+                       if (Vertx.currentContext() == context) {
+                           onSendFailed(request, throwable);
+                       } else {
+                           context.runOnContext(v -> onSendFailed(request, throwable));
+                       }
+                   });
+    }
+
+    /**
+     * 发送失败时不再等待重传，直接使请求失败。
+     */
+    private void onSendFailed(InFlightRequest request, Throwable throwable) {
+        if (inFlightRequests.get(request.correlationId) != request) {
+            return;
+        }
+        inFlightRequests.remove(request.correlationId);
+        inFlightCount = inFlightRequests.size();
+        cancelTimeout(request);
+        request.promise.tryFail(throwable);
+    }
+
+    private void onAttemptExpired(InFlightRequest request) {
+        request.timeout = null;
+        if (inFlightRequests.get(request.correlationId) != request) {
+            return;
+        }
+        if (request.remainingAttempts > 0) {
+            retransmittedCount++;
+            sendAttempt(request);
+            return;
+        }
+        inFlightRequests.remove(request.correlationId);
+        inFlightCount = inFlightRequests.size();
+        timedOutCount++;
+        request.promise.tryFail(new TimeoutException("No response for UDP request " + request.correlationId
+                + " to " + request.targetAddress + ":" + request.targetPort
+                + " within " + requestTimeoutMillis + " ms"));
+    }
+
+    private void onDatagram(SocketAddress sender, Buffer datagram) {
+        if (Vertx.currentContext() == context) {
+            dispatchDatagram(sender, datagram);
+        } else {
+            context.runOnContext(v -> dispatchDatagram(sender, datagram));
+        }
+    }
+
+    private void dispatchDatagram(SocketAddress sender, Buffer datagram) {
+        if (datagram.length() >= CORRELATION_ID_LENGTH) {
+            long correlationId = readCorrelationId(datagram);
+            InFlightRequest request = inFlightRequests.get(correlationId);
+            if (request != null && request.isSentBy(sender)) {
+                inFlightRequests.remove(correlationId);
+                inFlightCount = inFlightRequests.size();
+                cancelTimeout(request);
+                request.promise.tryComplete(readPayload(datagram));
+                return;
+            }
+        }
+        unmatchedCount++;
+        unmatchedDatagramConsumer.accept(sender, datagram);
+    }
+
+    private static void cancelTimeout(InFlightRequest request) {
+        HashedTimerWheel.Timeout<InFlightRequest> timeout = request.timeout;
+        if (timeout != null) {
+            timeout.cancel();
+            request.timeout = null;
+        }
+    }
+
+    private static final class InFlightRequest {
+        private final long correlationId;
+        private final Buffer datagram;
+        private final int targetPort;
+        private final String targetAddress;
+        private final Promise<Buffer> promise;
+        private int remainingAttempts;
+        private HashedTimerWheel.@Nullable Timeout<InFlightRequest> timeout;
+
+        private InFlightRequest(long correlationId, Buffer datagram, int targetPort, String targetAddress,
+                                Promise<Buffer> promise, int attempts) {
+            this.correlationId = correlationId;
+            this.datagram = datagram;
+            this.targetPort = targetPort;
+            this.targetAddress = targetAddress;
+            this.promise = promise;
+            this.remainingAttempts = attempts;
+        }
+
+        /**
+         * @return 数据报是否来自本请求的目标地址与端口
+         */
+        private boolean isSentBy(SocketAddress sender) {
+            String senderAddress = sender.hostAddress();
+            return sender.port() == targetPort
+                    && senderAddress != null
+                    && UDPHostResolver.isSameAddress(senderAddress, targetAddress);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package io.github.sinri.keel.web.udp;
+
+import io.github.sinri.keel.base.async.Keel;
+import io.github.sinri.keel.base.verticles.KeelVerticleBase;
+import io.github.sinri.keel.logger.api.factory.LoggerFactory;
+import io.github.sinri.keel.logger.api.logger.Logger;
+import io.github.sinri.keel.web.utils.EventLoops;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.datagram.DatagramSocket;
+import io.vertx.core.datagram.DatagramSocketOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.core.shareddata.LocalMap;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Keel UDP 服务基础类。
+ * <p>
+ * 每个实例在所在的事件循环上按配置创建一个{@link DatagramSocket}，以{@link KeelUDPTransceiver}封装并监听。
+ * 通过{@link #deployInstances(Keel, Supplier, JsonObject)}部署多个实例时，各实例的套接字以 SO_REUSEPORT 绑定同一端口，
+ * 由内核在各套接字（即各事件循环）之间分摊收到的数据报，使接收吞吐不再受限于单个核心。
+ * 注意 SO_REUSEPORT 仅在 Vert.x 启用原生传输（见{@link VertxOptions#setPreferNativeTransport(boolean)}）时生效，
+ * 否则多个实例绑定同一端口会失败；因此未启用原生传输时默认只部署一个实例，显式配置多个实例则直接部署失败。
+ * <p>
+ * 各实例收到的数据报都交给{@link #handleDatagram(SocketAddress, Buffer)}处理，该方法须可被多个事件循环并发调用。
+ * 各实例的接收速率按秒采样并汇总到共享的{@link KeelUDPServerMetrics}中。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+abstract public class KeelUDPServer extends KeelVerticleBase {
+    public static final String CONFIG_UDP_SERVER_PORT = "udp_server_port";
+    public static final String CONFIG_UDP_SERVER_ADDRESS = "udp_server_address";
+    public static final String CONFIG_UDP_SOCKET_OPTIONS = "udp_socket_options";
+    public static final String CONFIG_UDP_SOCKET_COUNT = "udp_socket_count";
+    private static final int DEFAULT_UDP_SERVER_PORT = 9001;
+    private static final String DEFAULT_UDP_SERVER_ADDRESS = "0.0.0.0";
+    private static final String METRICS_MAP_NAME = "keel.web.udp.server.metrics";
+    private static final long METRICS_SAMPLE_INTERVAL_MILLIS = 1000L;
+    private static final AtomicInteger SOCKET_SEQUENCE = new AtomicInteger();
+
+    private @Nullable KeelUDPTransceiver transceiver;
+    private @Nullable Logger udpServerLogger;
+    private @Nullable KeelUDPServerMetrics metrics;
+    private @Nullable String socketKey;
+    private long metricsTimerID = -1;
+
+    public KeelUDPServer() {
+        super();
+    }
+
+    /**
+     * 按配置项{@value #CONFIG_UDP_SOCKET_COUNT}部署若干实例，每个实例绑定一个套接字；
+     * 未配置时，启用原生传输则实例数为 Vert.x 实际配置的事件循环线程数，即每个事件循环一个，否则为 1。
+     * <p>
+     * 未启用原生传输时 SO_REUSEPORT 不生效，多个实例无法绑定同一端口；此时显式配置多于一个实例将直接返回失败。
+     *
+     * @param keel           Keel 实例
+     * @param serverSupplier 服务实例的提供者，每次调用应返回新实例
+     * @param config         服务配置
+     * @return 部署 ID
+     */
+    public static Future<String> deployInstances(Keel keel, Supplier<? extends KeelUDPServer> serverSupplier, JsonObject config) {
+        boolean nativeTransport = keel.isNativeTransportEnabled();
+        Integer configuredSocketCount = config.getInteger(CONFIG_UDP_SOCKET_COUNT);
+        int socketCount;
+        if (configuredSocketCount == null) {
+            socketCount = nativeTransport ? EventLoops.getEventLoopPoolSize(keel) : 1;
+        } else if (configuredSocketCount > 1 && !nativeTransport) {
+            return Future.failedFuture(new IllegalStateException(
+                    CONFIG_UDP_SOCKET_COUNT + "=" + configuredSocketCount
+                            + " requires native transport for SO_REUSEPORT; enable VertxOptions.setPreferNativeTransport(true) or use 1"));
+        } else {
+            socketCount = configuredSocketCount;
+        }
+        return keel.deployVerticle(serverSupplier, new DeploymentOptions()
+                .setConfig(config)
+                .setInstances(Math.max(1, socketCount)));
+    }
+
+    protected int getUdpServerPort() {
+        JsonObject config = this.config();
+        if (config == null) return DEFAULT_UDP_SERVER_PORT;
+        return config.getInteger(CONFIG_UDP_SERVER_PORT, DEFAULT_UDP_SERVER_PORT);
+    }
+
+    protected String getUdpServerAddress() {
+        JsonObject config = this.config();
+        if (config == null) return DEFAULT_UDP_SERVER_ADDRESS;
+        return config.getString(CONFIG_UDP_SERVER_ADDRESS, DEFAULT_UDP_SERVER_ADDRESS);
+    }
+
+    /**
+     * 从配置项{@value #CONFIG_UDP_SOCKET_OPTIONS}读取套接字选项，如{@code receiveBufferSize}；
+     * 未指定{@code reusePort}时默认启用。
+     */
+    protected DatagramSocketOptions getDatagramSocketOptions() {
+        JsonObject config = this.config();
+        if (config != null) {
+            JsonObject socketOptions = config.getJsonObject(CONFIG_UDP_SOCKET_OPTIONS);
+            if (socketOptions != null) {
+                DatagramSocketOptions options = new DatagramSocketOptions(socketOptions);
+                if (!socketOptions.containsKey("reusePort")) {
+                    options.setReusePort(true);
+                }
+                return options;
+            }
+        }
+        return new DatagramSocketOptions().setReusePort(true);
+    }
+
+    /**
+     * @return 服务名称，同名的各实例共享同一份指标；默认为类名
+     */
+    protected String getUdpServerName() {
+        return getClass().getName();
+    }
+
+    /**
+     * 配置本实例的传输器，如改为批量处理或调整日志策略；默认逐个交给{@link #handleDatagram(SocketAddress, Buffer)}。
+     *
+     * @param transceiver 本实例的传输器，尚未开始监听
+     */
+    protected void configureTransceiver(KeelUDPTransceiver transceiver) {
+        transceiver.setDatagramSocketConsumer(this::handleDatagram);
+    }
+
+    /**
+     * 处理收到的一个数据报。各实例共用此逻辑，可能在多个事件循环上并发调用。
+     *
+     * @param sender 发送方地址
+     * @param data   数据报内容
+     */
+    protected abstract void handleDatagram(SocketAddress sender, Buffer data);
+
+    protected Future<Void> beforeStartServer() {
+        return Future.succeededFuture();
+    }
+
+    protected Future<Void> afterShutdownServer() {
+        return Future.succeededFuture();
+    }
+
+    @Override
+    protected Future<Void> startVerticle() {
+        this.udpServerLogger = LoggerFactory.getShared().createLogger("KeelUDPServer");
+        this.metrics = getOrCreateMetrics();
+
+        DatagramSocketOptions options = getDatagramSocketOptions();
+        if (options.isReusePort() && !getKeel().isNativeTransportEnabled()) {
+            getUdpServerLogger().info(r -> r.message("SO_REUSEPORT requested but native transport is not enabled; "
+                    + "only one socket can bind the port"));
+        }
+        KeelUDPTransceiver transceiver = new KeelUDPTransceiver(
+                getKeel().createDatagramSocket(options),
+                getUdpServerPort(),
+                getUdpServerAddress()
+        );
+        this.transceiver = transceiver;
+        configureTransceiver(transceiver);
+
+        return beforeStartServer()
+                .compose(v0 -> transceiver.listen())
+                .compose(listened -> {
+                    String key = getUdpServerName() + "#" + SOCKET_SEQUENCE.incrementAndGet();
+                    this.socketKey = key;
+                    startSamplingMetrics(getMetrics().register(key), transceiver);
+                    getUdpServerLogger().info(r -> r.message("UDP Server Established on "
+                            + getUdpServerAddress() + ":" + getUdpServerPort() + " as " + key));
+                    return Future.<Void>succeededFuture();
+                }, throwable -> {
+                    getUdpServerLogger().error(r -> r.message("Listen failed")
+                                                     .exception(throwable));
+                    return Future.failedFuture(throwable);
+                });
+    }
+
+    private void startSamplingMetrics(KeelUDPServerMetrics.SocketStat socketStat, KeelUDPTransceiver transceiver) {
+        long[] last = {transceiver.getReceivedPackets(), System.currentTimeMillis()};
+        this.metricsTimerID = getKeel().setPeriodic(METRICS_SAMPLE_INTERVAL_MILLIS, timerID -> {
+            long now = System.currentTimeMillis();
+            long received = transceiver.getReceivedPackets();
+            long elapsed = Math.max(1, now - last[1]);
+            double rate = (received - last[0]) * 1000.0 / elapsed;
+            last[0] = received;
+            last[1] = now;
+            socketStat.update(received, transceiver.getProcessedPackets(), transceiver.getDroppedPackets(), rate);
+        });
+    }
+
+    private KeelUDPServerMetrics getOrCreateMetrics() {
+        LocalMap<String, KeelUDPServerMetrics> metricsMap = getKeel().sharedData().getLocalMap(METRICS_MAP_NAME);
+        KeelUDPServerMetrics created = new KeelUDPServerMetrics();
+        KeelUDPServerMetrics existing = metricsMap.putIfAbsent(getUdpServerName(), created);
+        return existing != null ? existing : created;
+    }
+
+    /**
+     * @return 本服务各实例共享的接收指标
+     */
+    public final KeelUDPServerMetrics getMetrics() {
+        return Objects.requireNonNull(metrics);
+    }
+
+    /**
+     * @return 本实例的传输器，可用于从本实例的套接字发送数据报
+     */
+    public final KeelUDPTransceiver getTransceiver() {
+        return Objects.requireNonNull(transceiver);
+    }
+
+    public final Logger getUdpServerLogger() {
+        return Objects.requireNonNull(udpServerLogger);
+    }
+
+    @Override
+    protected Future<Void> stopVerticle() {
+        if (metricsTimerID >= 0) {
+            getKeel().cancelTimer(metricsTimerID);
+            metricsTimerID = -1;
+        }
+        if (socketKey != null && metrics != null) {
+            metrics.unregister(socketKey);
+        }
+        if (transceiver == null) return Future.succeededFuture();
+        return transceiver.close()
+                          .compose(v -> afterShutdownServer()
+                                  .recover(throwable -> {
+                                      getUdpServerLogger().error(r -> r
+                                              .message("afterShutdownServer failed: %s".formatted(throwable.getMessage()))
+                                              .exception(throwable));
+                                      return Future.succeededFuture();
+                                  }));
+    }
+}
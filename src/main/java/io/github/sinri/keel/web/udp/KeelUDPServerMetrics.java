@@ -0,0 +1,107 @@
+package io.github.sinri.keel.web.udp;
+
+import io.vertx.core.shareddata.Shareable;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * UDP 服务的接收指标，由同一服务的各实例共享。
+ * <p>
+ * 每个实例绑定的套接字各占一项，记录该套接字累计收到、处理与丢弃的数据报数，以及最近一个采样周期内的接收速率；
+ * 比较各项的速率即可判断内核是否在各套接字之间均衡分摊了流量。
+ * 实现了{@link Shareable}，以便通过本地共享数据在同一 Vert.x 实例内的各服务实例之间共享而不被复制。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+public final class KeelUDPServerMetrics implements Shareable {
+    private final Map<String, SocketStat> socketStats = new ConcurrentHashMap<>();
+
+    KeelUDPServerMetrics() {
+    }
+
+    SocketStat register(String socketKey) {
+        SocketStat socketStat = new SocketStat();
+        socketStats.put(socketKey, socketStat);
+        return socketStat;
+    }
+
+    void unregister(String socketKey) {
+        socketStats.remove(socketKey);
+    }
+
+    /**
+     * @return 以套接字标识（服务名称与序号）为键的各套接字接收指标快照，按键排序
+     */
+    public Map<String, SocketStat> getSocketStats() {
+        return new TreeMap<>(socketStats);
+    }
+
+    /**
+     * @return 全部套接字合计的接收速率（数据报/秒）
+     */
+    public double getReceiveRatePerSecond() {
+        double total = 0;
+        for (SocketStat socketStat : socketStats.values()) {
+            total += socketStat.getReceiveRatePerSecond();
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "KeelUDPServerMetrics{sockets=" + getSocketStats() + "}";
+    }
+
+    /**
+     * 单个套接字的接收指标，由所在实例周期性地从{@link KeelUDPTransceiver}的计数器采样更新。
+     *
+     * @since 5.0.2
+     */
+    public static final class SocketStat {
+        private volatile long receivedPackets;
+        private volatile long processedPackets;
+        private volatile long droppedPackets;
+        private volatile double receiveRatePerSecond;
+
+        private SocketStat() {
+        }
+
+        void update(long receivedPackets, long processedPackets, long droppedPackets, double receiveRatePerSecond) {
+            this.receivedPackets = receivedPackets;
+            this.processedPackets = processedPackets;
+            this.droppedPackets = droppedPackets;
+            this.receiveRatePerSecond = receiveRatePerSecond;
+        }
+
+        public long getReceivedPackets() {
+            return receivedPackets;
+        }
+
+        public long getProcessedPackets() {
+            return processedPackets;
+        }
+
+        public long getDroppedPackets() {
+            return droppedPackets;
+        }
+
+        /**
+         * @return 最近一个采样周期内平均每秒收到的数据报数
+         */
+        public double getReceiveRatePerSecond() {
+            return receiveRatePerSecond;
+        }
+
+        @Override
+        public String toString() {
+            return "{received=" + receivedPackets
+                    + ", processed=" + processedPackets
+                    + ", dropped=" + droppedPackets
+                    + ", receiveRatePerSecond=" + receiveRatePerSecond + "}";
+        }
+    }
+}
@@ -1,20 +1,38 @@
 package io.github.sinri.keel.web.udp;
 
+import io.github.sinri.keel.logger.api.LogLevel;
 import io.github.sinri.keel.logger.api.factory.LoggerFactory;
 import io.github.sinri.keel.logger.api.logger.SpecificLogger;
+import io.github.sinri.keel.web.logging.PayloadLoggingPolicy;
+import io.github.sinri.keel.web.logging.PayloadSizeHistogram;
 import io.vertx.core.Closeable;
 import io.vertx.core.Completable;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.datagram.DatagramSocket;
 import io.vertx.core.net.SocketAddress;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * UDP 传输器
+ * <p>
+ * 收到的数据报默认逐个交给{@link #setDatagramSocketConsumer(BiConsumer)}设置的处理器；
+ * 高吞吐场景下可通过{@link #setBatchedDatagramConsumer(Consumer, int, long)}改为批量处理，
+ * 并通过{@link #setPayloadLoggingPolicy(PayloadLoggingPolicy)}对数据报日志进行采样或摘要。
+ * 发送端可通过{@link #enableSendPipeline(int, long, int, int)}启用限速的批量发送流水线。
  *
  * @since 5.0.0
  */
@@ -27,6 +45,27 @@ public class KeelUDPTransceiver implements Closeable {
     private BiConsumer<SocketAddress, Buffer> datagramSocketConsumer = (sender, buffer) -> {
         // do nothing
     };
+    private @Nullable Consumer<List<Datagram>> batchedDatagramConsumer;
+    private int maxBatchSize = 1;
+    private long maxBatchDelayMicros = 0;
+    private PayloadLoggingPolicy payloadLoggingPolicy = PayloadLoggingPolicy.bounded();
+    private final PayloadSizeHistogram receivedPayloadSizes = new PayloadSizeHistogram();
+    private final PayloadSizeHistogram sentPayloadSizes = new PayloadSizeHistogram();
+    private final LongAdder receivedPackets = new LongAdder();
+    private final LongAdder processedPackets = new LongAdder();
+    private final LongAdder droppedPackets = new LongAdder();
+    private long receivedSequence = 0;
+    private final AtomicLong sentSequence = new AtomicLong();
+    private @Nullable List<Datagram> pendingBatch;
+    private boolean batchFlushScheduled = false;
+    /**
+     * 收集待处理批次的上下文与批次定时器，关闭时据此取消定时器并处理剩余的批次。
+     */
+    private @Nullable Context batchContext;
+    private long batchTimerID = -1;
+    private @Nullable UDPSendPipeline sendPipeline;
+    private final Handler<Throwable> sendFailureHandler = throwable -> getLogger()
+            .error(x -> x.exception(throwable).message("failed to send datagram"));
 
     public KeelUDPTransceiver(
             DatagramSocket udpServer,
@@ -50,17 +89,112 @@ public class KeelUDPTransceiver implements Closeable {
         return this;
     }
 
+    /**
+     * 设置批量接收模式下的数据报处理器，须在{@link #listen()}之前调用。
+     * <p>
+     * 设置后，收到的数据报先加入待处理批次，在以下任一时机整批交给处理器：批次达到{@code maxBatchSize}个数据报；
+     * 或者，{@code maxBatchDelayMicros}为 0 时在当前事件循环轮次结束后，否则在延迟到期时（Vert.x 定时器精度为毫秒，向上取整）。
+     * 处理器在套接字所在的上下文中调用；处理器抛出异常时，该批数据报计为丢弃。
+     *
+     * @param batchedDatagramConsumer 批量处理器
+     * @param maxBatchSize            每批数据报数上限，须为正数
+     * @param maxBatchDelayMicros     批次的最长等待微秒数
+     * @since 5.0.2
+     */
+    public KeelUDPTransceiver setBatchedDatagramConsumer(Consumer<List<Datagram>> batchedDatagramConsumer, int maxBatchSize, long maxBatchDelayMicros) {
+        Objects.requireNonNull(batchedDatagramConsumer);
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        if (maxBatchDelayMicros < 0) {
+            throw new IllegalArgumentException("maxBatchDelayMicros must not be negative");
+        }
+        this.batchedDatagramConsumer = batchedDatagramConsumer;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchDelayMicros = maxBatchDelayMicros;
+        return this;
+    }
+
+    /**
+     * 设置收发数据报的日志记录策略；默认为{@link PayloadLoggingPolicy#bounded()}，即记录每个数据报的长度与有限长度的十六进制内容。
+     *
+     * @since 5.0.2
+     */
+    public KeelUDPTransceiver setPayloadLoggingPolicy(PayloadLoggingPolicy payloadLoggingPolicy) {
+        this.payloadLoggingPolicy = Objects.requireNonNull(payloadLoggingPolicy);
+        return this;
+    }
+
+    public PayloadLoggingPolicy getPayloadLoggingPolicy() {
+        return payloadLoggingPolicy;
+    }
+
+    /**
+     * @return 收到的数据报大小的直方图
+     * @since 5.0.2
+     */
+    public PayloadSizeHistogram getReceivedPayloadSizes() {
+        return receivedPayloadSizes;
+    }
+
+    /**
+     * @return 发出的数据报大小的直方图
+     * @since 5.0.2
+     */
+    public PayloadSizeHistogram getSentPayloadSizes() {
+        return sentPayloadSizes;
+    }
+
+    /**
+     * @return 累计收到的数据报数
+     * @since 5.0.2
+     */
+    public long getReceivedPackets() {
+        return receivedPackets.sum();
+    }
+
+    /**
+     * @return 累计处理完成（处理器正常返回）的数据报数
+     * @since 5.0.2
+     */
+    public long getProcessedPackets() {
+        return processedPackets.sum();
+    }
+
+    /**
+     * @return 累计因处理器抛出异常而丢弃的数据报数
+     * @since 5.0.2
+     */
+    public long getDroppedPackets() {
+        return droppedPackets.sum();
+    }
+
     public Future<Object> listen() {
         return udpServer.listen(port, address)
                         .compose(datagramSocket -> {
                             datagramSocket.handler(datagramPacket -> {
                                               SocketAddress sender = datagramPacket.sender();
                                               Buffer data = datagramPacket.data();
+                                              receivedPackets.increment();
+                                              receivedPayloadSizes.record(data.length());
 
-                                              getLogger().info(r -> r
-                                                      .bufferReceived(data, sender.hostAddress(), sender.port())
-                                              );
-                                              this.datagramSocketConsumer.accept(sender, data);
+                                              PayloadLoggingPolicy policy = this.payloadLoggingPolicy;
+                                              if (policy.shouldLog(receivedSequence++)) {
+                                                  getLogger().info(r -> r
+                                                          .bufferReceived(data, sender.hostAddress(), sender.port(), policy)
+                                                  );
+                                              }
+                                              if (this.batchedDatagramConsumer != null) {
+                                                  enqueueDatagram(new Datagram(sender, data));
+                                              } else {
+                                                  try {
+                                                      this.datagramSocketConsumer.accept(sender, data);
+                                                      processedPackets.increment();
+                                                  } catch (Throwable throwable) {
+                                                      droppedPackets.increment();
+                                                      getLogger().error(x -> x.exception(throwable).message("failed to process datagram"));
+                                                  }
+                                              }
                                           })
                                           //.endHandler(end -> getIssueRecorder().info(r -> r.message("read end")))
                                           .exceptionHandler(throwable -> getLogger()
@@ -69,20 +203,149 @@ public class KeelUDPTransceiver implements Closeable {
                         });
     }
 
+    private void enqueueDatagram(Datagram datagram) {
+        List<Datagram> batch = this.pendingBatch;
+        if (batch == null) {
+            batch = new ArrayList<>(Math.min(maxBatchSize, 1024));
+            this.pendingBatch = batch;
+        }
+        batch.add(datagram);
+        if (batch.size() >= maxBatchSize) {
+            flushBatch();
+        } else if (!batchFlushScheduled) {
+            batchFlushScheduled = true;
+            Context context = Vertx.currentContext();
+            this.batchContext = context;
+            if (context == null) {
+                flushBatch();
+            } else if (maxBatchDelayMicros > 0) {
+                batchTimerID = context.owner().setTimer(Math.max(1, (maxBatchDelayMicros + 999) / 1000), timerID -> {
+                    batchTimerID = -1;
+                    flushBatch();
+                });
+            } else {
+                context.runOnContext(v -> flushBatch());
+            }
+        }
+    }
+
+    private void flushBatch() {
+        batchFlushScheduled = false;
+        if (batchTimerID >= 0) {
+            Context context = this.batchContext;
+            if (context != null) {
+                context.owner().cancelTimer(batchTimerID);
+            }
+            batchTimerID = -1;
+        }
+        List<Datagram> batch = this.pendingBatch;
+        this.pendingBatch = null;
+        Consumer<List<Datagram>> consumer = this.batchedDatagramConsumer;
+        if (batch == null || batch.isEmpty() || consumer == null) {
+            return;
+        }
+        try {
+            consumer.accept(batch);
+            processedPackets.add(batch.size());
+        } catch (Throwable throwable) {
+            droppedPackets.add(batch.size());
+            getLogger().error(x -> x.exception(throwable).message("failed to process datagram batch of " + batch.size()));
+        }
+    }
+
+    /**
+     * 启用发送流水线，须在 Vert.x 上下文中调用，此后{@link #send(Buffer, int, String)}经流水线在该上下文中发出。
+     * <p>
+     * 待发送的数据报进入容量为{@code queueCapacity}的队列，队列满时立即以{@link java.util.concurrent.RejectedExecutionException}失败；
+     * 按每秒{@code packetsPerSecond}个、突发上限{@code burst}个的令牌桶限速，每批至多发出{@code flushBatchSize}个，且不等待前一个发送完成。
+     * 目标主机名的解析结果会被缓存。
+     *
+     * @param queueCapacity    发送队列容量
+     * @param packetsPerSecond 每秒发送数据报数上限
+     * @param burst            令牌桶容量，即允许的突发数据报数
+     * @param flushBatchSize   每批发出的数据报数上限
+     * @since 5.0.2
+     */
+    public KeelUDPTransceiver enableSendPipeline(int queueCapacity, long packetsPerSecond, int burst, int flushBatchSize) {
+        Context context = Vertx.currentContext();
+        if (context == null) {
+            throw new IllegalStateException("enableSendPipeline must be called on a Vert.x context");
+        }
+        this.sendPipeline = new UDPSendPipeline(context, this::sendDirectly, queueCapacity, packetsPerSecond, burst, flushBatchSize);
+        return this;
+    }
+
+    /**
+     * @return 发送流水线中排队的数据报数；未启用流水线时为 0
+     * @since 5.0.2
+     */
+    public int getQueuedSends() {
+        UDPSendPipeline pipeline = this.sendPipeline;
+        return pipeline == null ? 0 : pipeline.getQueuedSends();
+    }
+
+    /**
+     * @return 因发送队列已满而被拒绝的数据报数；未启用流水线时为 0
+     * @since 5.0.2
+     */
+    public long getRejectedSends() {
+        UDPSendPipeline pipeline = this.sendPipeline;
+        return pipeline == null ? 0 : pipeline.getRejectedSends();
+    }
+
     public Future<Void> send(Buffer buffer, int targetPort, String targetAddress) {
-        return udpServer.send(buffer, targetPort, targetAddress)
-                        .onSuccess(done -> getLogger().info(r -> r.bufferSent(buffer, targetAddress, targetPort)))
-                        .onFailure(throwable -> getLogger().error(x -> x.exception(throwable)
-                                                                        .message("failed to send to " + targetAddress + ":" + targetPort)));
+        UDPSendPipeline pipeline = this.sendPipeline;
+        if (pipeline != null) {
+            return pipeline.submit(buffer, targetPort, targetAddress);
+        }
+        return sendDirectly(buffer, targetPort, targetAddress);
     }
 
+    private Future<Void> sendDirectly(Buffer buffer, int targetPort, String targetAddress) {
+        sentPayloadSizes.record(buffer.length());
+        Future<Void> future = udpServer.send(buffer, targetPort, targetAddress);
+        PayloadLoggingPolicy policy = this.payloadLoggingPolicy;
+        if (policy.getMode() == PayloadLoggingPolicy.Mode.OFF || !LogLevel.INFO.isEnoughSeriousAs(getLogger().visibleLevel())) {
+            // 不记录发送日志时不为每个数据报创建日志回调
+            return future.onFailure(sendFailureHandler);
+        }
+        return future.onComplete(ar -> {
+            if (ar.succeeded()) {
+                if (policy.shouldLog(sentSequence.getAndIncrement())) {
+                    getLogger().info(r -> r.bufferSent(buffer, targetAddress, targetPort, policy));
+                }
+            } else {
+                getLogger().error(x -> x.exception(ar.cause())
+                                        .message("failed to send to " + targetAddress + ":" + targetPort));
+            }
+        });
+    }
+
+    /**
+     * 关闭套接字；之后在收集批次的上下文中取消批次定时器，并将剩余的待处理批次交给批量处理器。
+     */
     public Future<Void> close() {
         return udpServer.close()
+                        .eventually(this::flushPendingBatchOnClose)
                         .onSuccess(v -> getLogger().info(r -> r.message("closed")))
                         .onFailure(throwable -> getLogger().error(x -> x.exception(throwable)
                                                                         .message("failed to close")));
     }
 
+    private Future<Void> flushPendingBatchOnClose() {
+        Context context = this.batchContext;
+        if (context == null) {
+            flushBatch();
+            return Future.succeededFuture();
+        }
+        Promise<Void> promise = Promise.promise();
+        context.runOnContext(v -> {
+            flushBatch();
+            promise.complete();
+        });
+        return promise.future();
+    }
+
     @Override
     public void close(Completable<Void> completion) {
         close().onComplete(completion);
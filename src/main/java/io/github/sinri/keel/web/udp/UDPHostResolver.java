@@ -0,0 +1,104 @@
+package io.github.sinri.keel.web.udp;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 数据报目标主机名的解析器。
+ * <p>
+ * 解析结果按{@value #RESOLVED_HOST_TTL_MILLIS}毫秒缓存，解析在工作线程中进行，IP 字面量不解析。
+ * 全部状态仅在所绑定的上下文中访问。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+final class UDPHostResolver {
+    static final long RESOLVED_HOST_TTL_MILLIS = 60_000L;
+
+    private final Context context;
+    private final Map<String, ResolvedHost> resolvedHosts = new HashMap<>();
+    private final Map<String, Future<String>> resolvingHosts = new HashMap<>();
+
+    UDPHostResolver(Context context) {
+        this.context = context;
+    }
+
+    /**
+     * @return IP 字面量本身，或缓存中仍有效的解析结果；均不满足时为{@code null}
+     */
+    @Nullable String resolveCached(String host) {
+        if (isIpLiteral(host)) {
+            return host;
+        }
+        ResolvedHost resolvedHost = resolvedHosts.get(host);
+        if (resolvedHost != null && resolvedHost.expireAt > System.currentTimeMillis()) {
+            return resolvedHost.address;
+        }
+        return null;
+    }
+
+    /**
+     * 解析主机名；同一主机名同时只解析一次。
+     */
+    Future<String> resolve(String host) {
+        String cached = resolveCached(host);
+        if (cached != null) {
+            return Future.succeededFuture(cached);
+        }
+        Future<String> resolving = resolvingHosts.get(host);
+        if (resolving != null) {
+            return resolving;
+        }
+        Future<String> future = context.owner()
+                                       .executeBlocking(() -> InetAddress.getByName(host).getHostAddress(), false)
+                                       .andThen(ar -> {
+                                           resolvingHosts.remove(host);
+                                           if (ar.succeeded()) {
+                                               resolvedHosts.put(host, new ResolvedHost(ar.result(),
+                                                       System.currentTimeMillis() + RESOLVED_HOST_TTL_MILLIS));
+                                           }
+                                       });
+        resolvingHosts.put(host, future);
+        return future;
+    }
+
+    static boolean isIpLiteral(String host) {
+        if (host.indexOf(':') >= 0) {
+            return true;
+        }
+        for (int i = 0; i < host.length(); i++) {
+            char c = host.charAt(i);
+            if (c != '.' && (c < '0' || c > '9')) {
+                return false;
+            }
+        }
+        return !host.isEmpty();
+    }
+
+    /**
+     * 比较两个 IP 字面量是否表示同一地址；IPv6 地址的写法可能不同，按解析后的地址比较（字面量不触发 DNS 查询）。
+     */
+    static boolean isSameAddress(String address, String otherAddress) {
+        if (address.equals(otherAddress)) {
+            return true;
+        }
+        if (address.indexOf(':') < 0 || otherAddress.indexOf(':') < 0) {
+            return false;
+        }
+        try {
+            return InetAddress.getByName(address).equals(InetAddress.getByName(otherAddress));
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    private record ResolvedHost(String address, long expireAt) {
+    }
+}
@@ -0,0 +1,146 @@
+package io.github.sinri.keel.web.udp;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link KeelUDPTransceiver}的发送流水线。
+ * <p>
+ * 待发送的数据报进入有界队列，在所绑定的上下文中按令牌桶限速成批发出：每批不等待前一个数据报发送完成；
+ * 令牌不足时按补充令牌所需的时间设置定时器，单批达到上限时让出事件循环后继续。
+ * 目标主机名由{@link UDPHostResolver}解析并缓存，IP 字面量不解析。
+ * <p>
+ * 除计数器外，全部状态仅在所绑定的上下文中访问。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+final class UDPSendPipeline {
+    private final Context context;
+    private final Sender sender;
+    private final int queueCapacity;
+    private final double tokensPerNano;
+    private final double burst;
+    private final int flushBatchSize;
+
+    private final ArrayDeque<PendingSend> queue = new ArrayDeque<>();
+    private final UDPHostResolver hostResolver;
+    private final LongAdder rejectedSends = new LongAdder();
+    private volatile int queuedSends = 0;
+    private double tokens;
+    private long lastRefillNanos;
+    private boolean flushScheduled = false;
+
+    UDPSendPipeline(Context context, Sender sender, int queueCapacity, long packetsPerSecond, int burst, int flushBatchSize) {
+        if (queueCapacity <= 0 || packetsPerSecond <= 0 || burst <= 0 || flushBatchSize <= 0) {
+            throw new IllegalArgumentException("queueCapacity, packetsPerSecond, burst and flushBatchSize must be positive");
+        }
+        this.context = context;
+        this.hostResolver = new UDPHostResolver(context);
+        this.sender = sender;
+        this.queueCapacity = queueCapacity;
+        this.tokensPerNano = packetsPerSecond / (double) TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.flushBatchSize = flushBatchSize;
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    Future<Void> submit(Buffer buffer, int port, String host) {
+        Promise<Void> promise = Promise.promise();
+        PendingSend pendingSend = new PendingSend(buffer, port, host, promise);
+        if (Vertx.currentContext() == context) {
+            enqueue(pendingSend);
+        } else {
+            context.runOnContext(v -> enqueue(pendingSend));
+        }
+        return promise.future();
+    }
+
+    int getQueuedSends() {
+        return queuedSends;
+    }
+
+    long getRejectedSends() {
+        return rejectedSends.sum();
+    }
+
+    private void enqueue(PendingSend pendingSend) {
+        if (queue.size() >= queueCapacity) {
+            rejectedSends.increment();
+            pendingSend.promise.fail(new RejectedExecutionException("UDP send queue is full (" + queueCapacity + ")"));
+            return;
+        }
+        queue.addLast(pendingSend);
+        queuedSends = queue.size();
+        scheduleFlush(0);
+    }
+
+    private void scheduleFlush(long delayMillis) {
+        if (flushScheduled) return;
+        flushScheduled = true;
+        if (delayMillis <= 0) {
+            context.runOnContext(v -> flush());
+        } else {
+            context.owner().setTimer(delayMillis, timerID -> flush());
+        }
+    }
+
+    private void flush() {
+        flushScheduled = false;
+        refill();
+        int sent = 0;
+        while (!queue.isEmpty() && tokens >= 1 && sent < flushBatchSize) {
+            PendingSend pendingSend = queue.pollFirst();
+            tokens -= 1;
+            sent++;
+            dispatch(pendingSend);
+        }
+        queuedSends = queue.size();
+        if (queue.isEmpty()) return;
+        if (tokens >= 1) {
+            // 单批已达上限，让出事件循环后继续
+            scheduleFlush(0);
+        } else {
+            long nanosToNextToken = (long) Math.ceil((1 - tokens) / tokensPerNano);
+            scheduleFlush(Math.max(1, TimeUnit.NANOSECONDS.toMillis(nanosToNextToken + 999_999)));
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+
+    private void dispatch(PendingSend pendingSend) {
+        String address = hostResolver.resolveCached(pendingSend.host);
+        if (address != null) {
+            sender.send(pendingSend.buffer, pendingSend.port, address).onComplete(pendingSend.promise);
+            return;
+        }
+        hostResolver.resolve(pendingSend.host)
+                    .compose(resolved -> sender.send(pendingSend.buffer, pendingSend.port, resolved))
+                    .onComplete(pendingSend.promise);
+    }
+
+    /**
+     * 实际发送一个数据报。
+     */
+    @FunctionalInterface
+    interface Sender {
+        Future<Void> send(Buffer buffer, int port, String address);
+    }
+
+    private record PendingSend(Buffer buffer, int port, String host, Promise<Void> promise) {
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.sinri.keel.web.utils;
+
+import io.netty.util.concurrent.EventExecutor;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.internal.VertxInternal;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * 与 Vert.x 事件循环相关的工具方法。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+public final class EventLoops {
+    private EventLoops() {
+    }
+
+    /**
+     * 读取 Vert.x 实例实际配置的事件循环线程数，用于按“每个事件循环一个实例”部署服务。
+     * <p>
+     * 给定实例可能是包装类（如 Keel），因此经由其上下文取得实际的 Vert.x 实例；无法读取时返回
+     * {@link VertxOptions#DEFAULT_EVENT_LOOP_POOL_SIZE}。
+     *
+     * @param vertx Vert.x 实例
+     * @return 事件循环线程数
+     */
+    public static int getEventLoopPoolSize(Vertx vertx) {
+        Vertx owner = vertx.getOrCreateContext().owner();
+        if (owner instanceof VertxInternal vertxInternal) {
+            int count = 0;
+            for (EventExecutor ignored : vertxInternal.nettyEventLoopGroup()) {
+                count++;
+            }
+            if (count > 0) {
+                return count;
+            }
+        }
+        return VertxOptions.DEFAULT_EVENT_LOOP_POOL_SIZE;
+    }
+}
@@ -0,0 +1,163 @@
+package io.github.sinri.keel.web.utils;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.function.Consumer;
+
+/**
+ * 哈希时间轮，用于以很低的开销管理大量超时。
+ * <p>
+ * 时间被划分为固定长度的刻度，每个超时按其到期刻度放入对应的槽位（槽位数为 2 的幂，按刻度取模）；
+ * 推进时间轮时只检查经过的各槽位，到期项被移出并交给回调，未到期项（需绕轮多圈者）留在原处。
+ * 登记与取消均为 O(1)，推进的开销与到期项数量及经过的槽位数成正比，而与超时总数无关。
+ * <p>
+ * 本类不是线程安全的，应限定在单个线程或 Vert.x 上下文中使用，由使用者周期性调用{@link #advance(long, Consumer)}驱动。
+ *
+ * @param <T> 超时项携带的数据类型
+ * @since 5.0.2
+ */
+@NullMarked
+public final class HashedTimerWheel<T> {
+    private final long tickMillis;
+    private final int mask;
+    private final Timeout<T>[] heads;
+    private long lastTick;
+    private int size = 0;
+
+    /**
+     * @param tickMillis 刻度长度（毫秒），即超时的精度
+     * @param wheelSize  槽位数，将向上取整为 2 的幂；最长超时除以刻度长度若不超过槽位数，则每项至多被检查一次
+     * @param nowMillis  当前时间
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(long tickMillis, int wheelSize, long nowMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("wheelSize must be in (0, 2^30]");
+        }
+        int normalizedSize = Integer.highestOneBit(wheelSize - 1) << 1;
+        if (normalizedSize <= 0) {
+            normalizedSize = 1;
+        }
+        this.tickMillis = tickMillis;
+        this.mask = normalizedSize - 1;
+        this.heads = (Timeout<T>[]) new Timeout[normalizedSize];
+        this.lastTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * 登记一个在{@code deadlineMillis}到期的超时；已过期的超时在下一次推进时到期。
+     *
+     * @return 可用于取消的超时句柄
+     */
+    public Timeout<T> schedule(T item, long deadlineMillis) {
+        // 向上取整，使处理该刻度时当前时间必然不早于到期时间
+        long tick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), lastTick + 1);
+        Timeout<T> timeout = new Timeout<>(this, item, deadlineMillis);
+        int index = (int) (tick & mask);
+        timeout.bucket = index;
+        timeout.next = heads[index];
+        if (heads[index] != null) {
+            heads[index].prev = timeout;
+        }
+        heads[index] = timeout;
+        size++;
+        return timeout;
+    }
+
+    /**
+     * 将时间轮推进到{@code nowMillis}，按槽位顺序将所有到期项交给{@code expiredConsumer}。
+     * 回调中可以登记新的超时。
+     */
+    public void advance(long nowMillis, Consumer<T> expiredConsumer) {
+        long currentTick = nowMillis / tickMillis;
+        if (currentTick <= lastTick) {
+            return;
+        }
+        long ticks = Math.min(currentTick - lastTick, heads.length);
+        long startTick = currentTick - ticks + 1;
+        lastTick = currentTick;
+        for (long tick = startTick; tick <= currentTick; tick++) {
+            int index = (int) (tick & mask);
+            Timeout<T> timeout = heads[index];
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.deadlineMillis <= nowMillis) {
+                    unlink(timeout);
+                    expiredConsumer.accept(timeout.item);
+                }
+                timeout = next;
+            }
+        }
+    }
+
+    /**
+     * @return 尚未到期且未取消的超时数
+     */
+    public int size() {
+        return size;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.bucket < 0) {
+            return;
+        }
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            heads[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+        size--;
+    }
+
+    /**
+     * 时间轮中的一个超时。
+     *
+     * @param <T> 超时项携带的数据类型
+     */
+    public static final class Timeout<T> {
+        private final HashedTimerWheel<T> wheel;
+        private final T item;
+        private final long deadlineMillis;
+        private @Nullable Timeout<T> prev;
+        private @Nullable Timeout<T> next;
+        private int bucket = -1;
+
+        private Timeout(HashedTimerWheel<T> wheel, T item, long deadlineMillis) {
+            this.wheel = wheel;
+            this.item = item;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+
+        /**
+         * @return 是否仍在时间轮中，即尚未到期也未被取消
+         */
+        public boolean isPending() {
+            return bucket >= 0;
+        }
+
+        /**
+         * 取消本超时；已到期或已取消时无操作。
+         */
+        public void cancel() {
+            wheel.unlink(this);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package io.github.sinri.keel.web.utils;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * 以{@code long}为键的开放寻址哈希表。
+ * <p>
+ * 键与值分别存放在两个数组中，以线性探测解决冲突，删除时回移后续项而不留墓碑；
+ * 相比{@link java.util.HashMap}，不为键装箱，也不为每个条目创建节点对象，适合存放大量短期条目（如在途请求）。
+ * 键{@code 0}被用于标记空槽，不能作为键使用。
+ * <p>
+ * 本类不是线程安全的。
+ *
+ * @param <V> 值的类型
+ * @since 5.0.2
+ */
+@NullMarked
+public final class LongOpenHashMap<V> {
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private @Nullable Object[] values;
+    private int mask;
+    private int size = 0;
+    private int resizeThreshold;
+
+    public LongOpenHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize 预期的条目数，据此预分配容量，使装载因子不超过 0.5
+     */
+    public LongOpenHashMap(int expectedSize) {
+        if (expectedSize < 0 || expectedSize > (1 << 29)) {
+            throw new IllegalArgumentException("expectedSize must be in [0, 2^29]");
+        }
+        int capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, expectedSize * 2 - 1)) << 1);
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        this.resizeThreshold = capacity / 2;
+    }
+
+    /**
+     * @return 旧值；不存在时为{@code null}
+     */
+    public @Nullable V put(long key, V value) {
+        checkKey(key);
+        int index = indexOf(key);
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                @SuppressWarnings("unchecked")
+                V old = (V) values[index];
+                values[index] = value;
+                return old;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public @Nullable V get(long key) {
+        if (key == 0) return null;
+        int index = indexOf(key);
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                return (V) values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @return 被移除的值；不存在时为{@code null}
+     */
+    public @Nullable V remove(long key) {
+        if (key == 0) return null;
+        int index = indexOf(key);
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                @SuppressWarnings("unchecked")
+                V removed = (V) values[index];
+                size--;
+                shiftBack(index);
+                return removed;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 遍历全部条目；遍历期间不得修改本表。
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<Long, V> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                action.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * 删除{@code gap}处的条目后，将探测链上后续可回移的条目前移填补空槽，使查找无需墓碑。
+     */
+    private void shiftBack(int gap) {
+        int index = (gap + 1) & mask;
+        while (keys[index] != 0) {
+            int home = indexOf(keys[index]);
+            // 条目的理想位置不在 (gap, index] 区间内时，可移到 gap
+            if (((index - home) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = keys[index];
+                values[gap] = values[index];
+                gap = index;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[gap] = 0;
+        values[gap] = null;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        @Nullable Object[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != 0) {
+                int index = indexOf(key);
+                while (keys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private int indexOf(long key) {
+        // 混合高低位，避免连续或规律的键集中于少数槽位
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static void checkKey(long key) {
+        if (key == 0) {
+            throw new IllegalArgumentException("key 0 is reserved");
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.sinri.keel.web.utils;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 持有本模块共用的虚拟线程执行器，每个任务运行于一个新的虚拟线程，任务之间互不阻塞。
+ * <p>
+ * 本模块以 Java 17 为编译目标，故通过反射调用{@code Executors.newVirtualThreadPerTaskExecutor()}。
+ *
+ * @since 5.0.2
+ */
+@NullMarked
+public final class VirtualThreadExecutorHolder {
+    private static volatile @Nullable ExecutorService executor;
+
+    private VirtualThreadExecutorHolder() {
+    }
+
+    /**
+     * @return 虚拟线程执行器
+     * @throws IllegalStateException 运行时不支持虚拟线程
+     */
+    public static ExecutorService getExecutor() {
+        ExecutorService current = executor;
+        if (current == null) {
+            synchronized (VirtualThreadExecutorHolder.class) {
+                current = executor;
+                if (current == null) {
+                    try {
+                        current = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                    } catch (ReflectiveOperationException e) {
+                        throw new IllegalStateException("Virtual threads are not available in this runtime", e);
+                    }
+                    executor = current;
+                }
+            }
+        }
+        return current;
+    }
+}
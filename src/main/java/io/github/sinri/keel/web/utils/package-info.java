@@ -0,0 +1,7 @@
+/**
+ * <p>The utils package provides general-purpose building blocks shared by the network components of Keel Web.</p>
+ * <p>- Hashed timer wheel for scheduling large numbers of timeouts</p>
+ * <p>- Event loop pool size lookup for per-event-loop deployments</p>
+ * <p>- Shared virtual-thread-per-task executor</p>
+ */
+package io.github.sinri.keel.web.utils;
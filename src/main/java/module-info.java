@@ -7,7 +7,9 @@ module io.github.sinri.keel.web {
     requires transitive io.vertx.core;
     requires transitive io.vertx.web;
     requires transitive io.vertx.web.client;
+    requires io.netty.common; // event loop pool size lookup
     requires static org.jspecify; // compile-time only
+    requires static java.compiler; // annotation processor only
 
     // Public API exports
     exports io.github.sinri.keel.web.http;
@@ -18,6 +20,8 @@ module io.github.sinri.keel.web {
     exports io.github.sinri.keel.web.http.receptionist.responder;
     exports io.github.sinri.keel.web.http.requester.error;
     exports io.github.sinri.keel.web.http.requester.extractor;
+    exports io.github.sinri.keel.web.logging;
     exports io.github.sinri.keel.web.tcp;
     exports io.github.sinri.keel.web.udp;
+    exports io.github.sinri.keel.web.utils;
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package io.github.sinri.keel.web.http.receptionist;
+
+import io.vertx.ext.web.RoutingContext;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 确认各方式生成的{@link ReceptionistFactory}都能实际创建请求接待类实例，而不只是生成成功。
+ */
+class ReceptionistFactoryUnitTest {
+    private static RoutingContext dummyRoutingContext() {
+        return (RoutingContext) Proxy.newProxyInstance(
+                RoutingContext.class.getClassLoader(),
+                new Class<?>[]{RoutingContext.class},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return switch (method.getName()) {
+                            case "equals" -> proxy == args[0];
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            default -> "DummyRoutingContext";
+                        };
+                    }
+                    return null;
+                });
+    }
+
+    @Test
+    void lambdaMetafactoryCreatesInstance() throws Throwable {
+        RoutingContext routingContext = dummyRoutingContext();
+        ReceptionistFactory<SmokeReceptionist> factory = ReceptionistFactories.viaLambdaMetafactory(SmokeReceptionist.class, null);
+        SmokeReceptionist receptionist = factory.create(routingContext);
+        assertInstanceOf(SmokeReceptionist.class, receptionist);
+        assertSame(routingContext, receptionist.getRoutingContext());
+    }
+
+    @Test
+    void methodHandleCreatesInstance() throws Throwable {
+        RoutingContext routingContext = dummyRoutingContext();
+        ReceptionistFactory<SmokeReceptionist> factory = ReceptionistFactories.viaMethodHandle(SmokeReceptionist.class);
+        assertSame(routingContext, factory.create(routingContext).getRoutingContext());
+    }
+
+    @Test
+    void forClassCreatesInstance() throws Throwable {
+        RoutingContext routingContext = dummyRoutingContext();
+        ReceptionistFactory<SmokeReceptionist> factory = ReceptionistFactory.forClass(SmokeReceptionist.class);
+        assertSame(routingContext, factory.create(routingContext).getRoutingContext());
+    }
+
+    public static class SmokeReceptionist extends KeelWebReceptionist {
+        public SmokeReceptionist(RoutingContext routingContext) {
+            super(routingContext);
+        }
+
+        @Override
+        protected boolean isLightweightLogging() {
+            return true;
+        }
+
+        @Override
+        public void handle() {
+        }
+    }
+}